@@ -0,0 +1,291 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.java.lang;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The compiled object formatter of the class. The field accessors are
+ * resolved once when the formatter is created. The field is read by the
+ * {@link MethodHandle} or by the accessible {@link Field} if the private
+ * lookup of the class is not allowed.
+ *
+ * @author Andrej Petras
+ */
+final class ObjectFormatter {
+
+    /**
+     * The logger for this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(ObjectFormatter.class.getName());
+
+    /**
+     * The getter method type.
+     */
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * The truncated output suffix.
+     */
+    private static final String TRUNCATED = "...";
+
+    /**
+     * The class simple name.
+     */
+    private final String simpleName;
+
+    /**
+     * The field name prefixes {@code name=}.
+     */
+    private final String[] prefixes;
+
+    /**
+     * The field getters.
+     */
+    private final MethodHandle[] getters;
+
+    /**
+     * The field fallback accessors for the field without getter.
+     */
+    private final Field[] fields;
+
+    /**
+     * The collection type simple names or {@code null} for the field which is
+     * not a collection.
+     */
+    private final String[] collections;
+
+    /**
+     * The default constructor.
+     *
+     * @param type the class.
+     */
+    ObjectFormatter(Class<?> type) {
+        this.simpleName = type.getSimpleName();
+        List<Field> tmp = findAllFields(type);
+        prefixes = new String[tmp.size()];
+        getters = new MethodHandle[tmp.size()];
+        fields = new Field[tmp.size()];
+        collections = new String[tmp.size()];
+
+        MethodHandles.Lookup lookup = null;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException | RuntimeException ex) {
+            LOGGER.log(Level.FINE, "No private access to the class {0}, using the reflection.", type.getName());
+        }
+
+        for (int i = 0; i < prefixes.length; i++) {
+            Field field = tmp.get(i);
+            prefixes[i] = field.getName() + '=';
+            if (Collection.class.isAssignableFrom(field.getType())) {
+                collections[i] = field.getType().getSimpleName();
+            }
+            if (lookup != null) {
+                try {
+                    getters[i] = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+                } catch (IllegalAccessException ex) {
+                    LOGGER.log(Level.FINE, "No access to the field {0}, using the reflection.", field);
+                }
+            }
+            if (getters[i] == null) {
+                try {
+                    field.setAccessible(true);
+                    fields[i] = field;
+                } catch (RuntimeException ex) {
+                    LOGGER.log(Level.SEVERE, "Error set accessible the field {0}", field);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds all fields of the class.
+     *
+     * @param objectClazz the object class.
+     * @return the list of fields.
+     */
+    private static List<Field> findAllFields(Class<?> objectClazz) {
+        List<Field> result = new ArrayList<>();
+        Class<?> clazz = objectClazz;
+        do {
+            Field[] f = clazz.getDeclaredFields();
+            for (Field field : f) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    result.add(field);
+                }
+            }
+            clazz = clazz.getSuperclass();
+        } while (clazz != null && !clazz.equals(Object.class));
+        return result;
+    }
+
+    /**
+     * Appends the object field values to the string builder.
+     *
+     * @param sb the string builder.
+     * @param object the object.
+     * @param collectionSize special log for collection with more items that
+     * {@code collectionSize} or {@code -1}.
+     * @param maxLength the maximal length of the output or {@code 0} or {@code -1}.
+     * @return the string builder.
+     */
+    StringBuilder appendTo(StringBuilder sb, Object object, int collectionSize, int maxLength) {
+        int limit = maxLength <= 0 ? Integer.MAX_VALUE : sb.length() + maxLength;
+        if (!append(sb, simpleName, limit)) {
+            return sb;
+        }
+        if (prefixes.length == 0) {
+            return sb;
+        }
+        sb.append('[');
+        boolean first = false;
+        for (int i = 0; i < prefixes.length; i++) {
+            Object value;
+            try {
+                if (getters[i] != null) {
+                    value = (Object) getters[i].invokeExact(object);
+                } else if (fields[i] != null) {
+                    value = fields[i].get(object);
+                } else {
+                    continue;
+                }
+            } catch (Throwable ex) {
+                LOGGER.log(Level.SEVERE, "Error get the field {0} value", prefixes[i]);
+                continue;
+            }
+            if (first) {
+                sb.append(',');
+            }
+            first = true;
+            if (!append(sb, prefixes[i], limit)) {
+                return sb;
+            }
+            if (value != null && collectionSize != -1 && collections[i] != null) {
+                int size = ((Collection<?>) value).size();
+                if (size > collectionSize) {
+                    if (!append(sb, collections[i], limit) || !append(sb, "(" + size + ")", limit)) {
+                        return sb;
+                    }
+                    continue;
+                }
+            }
+            if (!append(sb, value, limit)) {
+                return sb;
+            }
+        }
+        sb.append(']');
+        return sb;
+    }
+
+    /**
+     * Appends the value to the string builder up to the limit. If the limit
+     * is set the items of the collection, map and object array are appended
+     * one by one, so the rendering stops at the limit. Without the limit the
+     * {@link String#valueOf(Object)} of the value is appended.
+     *
+     * @param sb the string builder.
+     * @param value the value.
+     * @param limit the maximal length of the string builder.
+     * @return {@code false} if the output was truncated.
+     */
+    private static boolean append(StringBuilder sb, Object value, int limit) {
+        if (limit == Integer.MAX_VALUE) {
+            return appendText(sb, value, limit);
+        }
+        if (value instanceof Collection) {
+            return appendItems(sb, value, ((Collection<?>) value).iterator(), limit, "(this Collection)");
+        }
+        if (value instanceof Map) {
+            return appendItems(sb, value, ((Map<?, ?>) value).entrySet().iterator(), limit, "(this Map)");
+        }
+        if (value instanceof Object[]) {
+            return appendItems(sb, value, Arrays.asList((Object[]) value).iterator(), limit, "(this Array)");
+        }
+        return appendText(sb, value, limit);
+    }
+
+    /**
+     * Appends the items to the string builder up to the limit in the
+     * {@code [item1, item2]} format of the collection.
+     *
+     * @param sb the string builder.
+     * @param value the collection, map or array.
+     * @param items the items.
+     * @param limit the maximal length of the string builder.
+     * @param self the text of the item which is the value itself.
+     * @return {@code false} if the output was truncated.
+     */
+    private static boolean appendItems(StringBuilder sb, Object value, Iterator<?> items, int limit, String self) {
+        boolean map = value instanceof Map;
+        if (!appendText(sb, map ? "{" : "[", limit)) {
+            return false;
+        }
+        boolean first = true;
+        while (items.hasNext()) {
+            if (!first && !appendText(sb, ", ", limit)) {
+                return false;
+            }
+            first = false;
+            Object item = items.next();
+            if (map) {
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) item;
+                if (!append(sb, entry.getKey() == value ? self : entry.getKey(), limit)
+                        || !appendText(sb, "=", limit)
+                        || !append(sb, entry.getValue() == value ? self : entry.getValue(), limit)) {
+                    return false;
+                }
+            } else if (!append(sb, item == value ? self : item, limit)) {
+                return false;
+            }
+        }
+        return appendText(sb, map ? "}" : "]", limit);
+    }
+
+    /**
+     * Appends the text of the value to the string builder up to the limit.
+     *
+     * @param sb the string builder.
+     * @param value the value.
+     * @param limit the maximal length of the string builder.
+     * @return {@code false} if the output was truncated.
+     */
+    private static boolean appendText(StringBuilder sb, Object value, int limit) {
+        CharSequence tmp = value instanceof CharSequence ? (CharSequence) value : String.valueOf(value);
+        int remaining = limit - sb.length();
+        if (tmp.length() <= remaining) {
+            sb.append(tmp);
+            return true;
+        }
+        if (remaining > 0) {
+            sb.append(tmp, 0, remaining);
+        }
+        sb.append(TRUNCATED);
+        return false;
+    }
+}
@@ -15,14 +15,6 @@
  */
 package org.lorislab.java.lang;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.logging.Level;
-import java.util.logging.Logger;
-
 /**
  * The simple reflection utility.
  *
@@ -31,9 +23,14 @@ import java.util.logging.Logger;
 public final class ReflectionUtil {
 
     /**
-     * The logger for this class.
+     * The compiled object formatters.
      */
-    private static final Logger LOGGER = Logger.getLogger(ReflectionUtil.class.getName());
+    private static final SoftClassValue<ObjectFormatter> FORMATTERS = new SoftClassValue<ObjectFormatter>() {
+        @Override
+        protected ObjectFormatter computeValue(Class<?> type) {
+            return new ObjectFormatter(type);
+        }
+    };
 
     /**
      * The default constructor.
@@ -42,27 +39,6 @@ public final class ReflectionUtil {
         // empty constructor
     }
 
-    /**
-     * Finds all fields of the class.
-     *
-     * @param objectClazz the object class.
-     * @return the list of fields.
-     */
-    private static List<Field> findAllFields(Class<?> objectClazz) {
-        List<Field> result = new ArrayList<>();
-        Class<?> clazz = objectClazz;
-        do {
-            Field[] f = clazz.getDeclaredFields();
-            for (Field field : f) {
-                if (!Modifier.isStatic(field.getModifiers())) {
-                    result.add(field);
-                }
-            }
-            clazz = clazz.getSuperclass();
-        } while (clazz != null && !clazz.equals(Object.class));
-        return result;
-    }
-
     /**
      * Writes the object field values to the string.
      *
@@ -82,45 +58,28 @@ public final class ReflectionUtil {
      * @return object field values as a string.
      */
     public static String toString(Object object, int collectionSize) {
-        StringBuilder sb = new StringBuilder();
+        if (object == null) {
+            return "";
+        }
+        return appendTo(new StringBuilder(), object, collectionSize, -1).toString();
+    }
 
+    /**
+     * Appends the object field values to the string builder. The field
+     * accessors of the class are resolved once and cached.
+     *
+     * @param sb the string builder.
+     * @param object the object.
+     * @param collectionSize special log for collection wit more items that
+     * {@code collectionSize} or {@code -1}.
+     * @param maxLength the maximal number of appended characters or {@code 0}
+     * or {@code -1}. The truncated output ends with {@code ...}.
+     * @return the string builder.
+     */
+    public static StringBuilder appendTo(StringBuilder sb, Object object, int collectionSize, int maxLength) {
         if (object != null) {
-            //sb.append(object.getClass().getName()).append("@").append(Integer.toHexString(object.hashCode()));
-            sb.append(object.getClass().getSimpleName());
-            List<Field> fields = findAllFields(object.getClass());
-            if (fields != null && !fields.isEmpty()) {
-                sb.append('[');
-                boolean first = false;
-                for (Field field : fields) {
-                    Object value;
-                    boolean accessible = field.canAccess(object);
-                    try {
-                        try {
-                            field.setAccessible(true);
-                            value = field.get(object);
-                        } finally {
-                            field.setAccessible(accessible);
-                        }
-
-                        if (first) {
-                            sb.append(',');
-                        }
-                        if (value != null && collectionSize != -1 && Collection.class.isAssignableFrom(field.getType())) {
-                            Collection c = (Collection) value;
-                            if (c.size() > collectionSize) {
-                                value =  field.getType().getSimpleName() + "(" + c.size() + ")";
-                            }
-                        }
-                        sb.append(field.getName()).append('=').append(value);
-                        first = true;
-                    } catch (IllegalArgumentException | IllegalAccessException ex) {
-                        LOGGER.log(Level.SEVERE, "Error get the field {0} value", field);
-                    }
-                }
-                sb.append(']');
-            }
+            FORMATTERS.get(object.getClass()).appendTo(sb, object, collectionSize, maxLength);
         }
-
-        return sb.toString();
+        return sb;
     }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.java.lang;
+
+import java.lang.ref.SoftReference;
+
+/**
+ * The class value which holds the computed values softly. The
+ * {@link ClassValue} stores the value in the class, so the value computed for
+ * the class of the parent class loader (for example {@code java.lang.String})
+ * would pin the class loader of the value class after undeploy. The soft
+ * reference does not pin the class loader and the value is computed again if
+ * the reference was cleared.
+ *
+ * @param <T> the type of the value.
+ *
+ * @author Andrej Petras
+ */
+public abstract class SoftClassValue<T> {
+
+    /**
+     * The soft references of the values.
+     */
+    private final ClassValue<SoftReference<T>> values = new ClassValue<SoftReference<T>>() {
+        @Override
+        protected SoftReference<T> computeValue(Class<?> type) {
+            return new SoftReference<>(SoftClassValue.this.computeValue(type));
+        }
+    };
+
+    /**
+     * Computes the value for the class.
+     *
+     * @param type the class.
+     * @return the value.
+     */
+    protected abstract T computeValue(Class<?> type);
+
+    /**
+     * Gets the value for the class. The value is computed if it does not
+     * exist or the reference was cleared by the garbage collector.
+     *
+     * @param type the class.
+     * @return the value.
+     */
+    public T get(Class<?> type) {
+        T value = values.get(type).get();
+        while (value == null) {
+            values.remove(type);
+            value = values.get(type).get();
+        }
+        return value;
+    }
+
+    /**
+     * Removes the value for the class.
+     *
+     * @param type the class.
+     */
+    public void remove(Class<?> type) {
+        values.remove(type);
+    }
+}
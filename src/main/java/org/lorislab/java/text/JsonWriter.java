@@ -0,0 +1,198 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.java.text;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * The streaming JSON writer which appends the JSON object to the string
+ * builder. The field names are encoded once with the {@link #name(String)}
+ * method and appended as they are.
+ *
+ * @author Andrej Petras
+ */
+public final class JsonWriter {
+
+    /**
+     * The hex digits.
+     */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * The line separator which is not valid in the JavaScript string.
+     */
+    private static final char LINE_SEPARATOR = (char) 0x2028;
+
+    /**
+     * The paragraph separator which is not valid in the JavaScript string.
+     */
+    private static final char PARAGRAPH_SEPARATOR = (char) 0x2029;
+
+    /**
+     * The string builder.
+     */
+    private final StringBuilder sb;
+
+    /**
+     * The first field flag.
+     */
+    private boolean first = true;
+
+    /**
+     * The default constructor.
+     *
+     * @param sb the string builder.
+     */
+    public JsonWriter(StringBuilder sb) {
+        this.sb = sb;
+    }
+
+    /**
+     * Encodes the field name with the quotes and the colon.
+     *
+     * @param name the field name.
+     * @return the encoded field name.
+     */
+    public static String name(String name) {
+        StringBuilder tmp = new StringBuilder(name.length() + 3);
+        appendString(tmp, name);
+        return tmp.append(':').toString();
+    }
+
+    /**
+     * Starts the JSON object.
+     *
+     * @return the JSON writer.
+     */
+    public JsonWriter begin() {
+        sb.append('{');
+        first = true;
+        return this;
+    }
+
+    /**
+     * Ends the JSON object.
+     *
+     * @return the string builder.
+     */
+    public StringBuilder end() {
+        return sb.append('}');
+    }
+
+    /**
+     * Appends the field. The {@code null} value is skipped. The integral and
+     * the finite decimal numbers and the booleans are written as the JSON
+     * number and the JSON boolean, the other values as the JSON string.
+     *
+     * @param name the encoded field name.
+     * @param value the field value.
+     * @return the JSON writer.
+     */
+    public JsonWriter field(String name, Object value) {
+        if (value != null) {
+            appendName(name);
+            if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+                    || value instanceof BigInteger || value instanceof BigDecimal || value instanceof Boolean) {
+                sb.append(value);
+            } else if ((value instanceof Double || value instanceof Float) && Double.isFinite(((Number) value).doubleValue())) {
+                sb.append(value);
+            } else {
+                appendString(sb, value.toString());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Appends the number field.
+     *
+     * @param name the encoded field name.
+     * @param value the field value.
+     * @return the JSON writer.
+     */
+    public JsonWriter field(String name, long value) {
+        appendName(name);
+        sb.append(value);
+        return this;
+    }
+
+    /**
+     * Appends the field name and the separator.
+     *
+     * @param name the encoded field name.
+     */
+    private void appendName(String name) {
+        if (first) {
+            first = false;
+        } else {
+            sb.append(',');
+        }
+        sb.append(name);
+    }
+
+    /**
+     * Appends the quoted and escaped JSON string.
+     *
+     * @param sb the string builder.
+     * @param value the string value.
+     * @return the string builder.
+     */
+    public static StringBuilder appendString(StringBuilder sb, CharSequence value) {
+        sb.append('"');
+        int length = value.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char ch = value.charAt(i);
+            if (ch >= 0x20 && ch != '"' && ch != '\\' && ch != LINE_SEPARATOR && ch != PARAGRAPH_SEPARATOR) {
+                continue;
+            }
+            sb.append(value, start, i);
+            start = i + 1;
+            switch (ch) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\b':
+                    sb.append("\\b");
+                    break;
+                case '\f':
+                    sb.append("\\f");
+                    break;
+                default:
+                    sb.append("\\u")
+                            .append(HEX[(ch >> 12) & 0xF])
+                            .append(HEX[(ch >> 8) & 0xF])
+                            .append(HEX[(ch >> 4) & 0xF])
+                            .append(HEX[ch & 0xF]);
+            }
+        }
+        sb.append(value, start, length);
+        return sb.append('"');
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.java.text;
+
+/**
+ * The message argument which appends its value directly to the message buffer
+ * of the {@link MessageTemplate}.
+ *
+ * @author Andrej Petras
+ */
+public interface MessageArgument {
+
+    /**
+     * Appends the argument value to the string builder.
+     *
+     * @param sb the string builder.
+     */
+    void appendTo(StringBuilder sb);
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.java.text;
+
+import java.text.DateFormat;
+import java.text.MessageFormat;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The precompiled message template. The template uses the
+ * {@link MessageFormat} pattern syntax and is parsed once to the literal and
+ * argument segments. The template is thread-safe. The patterns with the
+ * format type ({@code {0,number,#}}) are formatted by the per-thread
+ * {@link MessageFormat} instance. The {@link MessageArgument} parameters are
+ * appended directly to the message buffer.
+ *
+ * @author Andrej Petras
+ */
+public final class MessageTemplate {
+
+    /**
+     * The maximal capacity of the per-thread buffer which is kept for the next
+     * format call.
+     */
+    private static final int MAX_BUFFER_CAPACITY = 8192;
+
+    /**
+     * The per-thread buffer.
+     */
+    private static final ThreadLocal<StringBuilder[]> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder[1]);
+
+    /**
+     * The per-thread number format.
+     */
+    private static final ThreadLocal<NumberFormat> NUMBER_FORMAT = ThreadLocal.withInitial(() -> NumberFormat.getInstance(Locale.getDefault(Locale.Category.FORMAT)));
+
+    /**
+     * The per-thread date format.
+     */
+    private static final ThreadLocal<DateFormat> DATE_FORMAT = ThreadLocal.withInitial(() -> DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, Locale.getDefault(Locale.Category.FORMAT)));
+
+    /**
+     * The pattern.
+     */
+    private final String pattern;
+
+    /**
+     * The literals. The literal {@code i} is before the argument {@code i},
+     * the last literal is after the last argument.
+     */
+    private final String[] literals;
+
+    /**
+     * The argument indexes.
+     */
+    private final int[] arguments;
+
+    /**
+     * The per-thread message format for the complex patterns.
+     */
+    private final ThreadLocal<MessageFormat> fallback;
+
+    /**
+     * The default constructor.
+     *
+     * @param pattern the pattern.
+     */
+    private MessageTemplate(String pattern) {
+        this.pattern = pattern;
+        List<String> tmpLiterals = new ArrayList<>();
+        List<Integer> tmpArguments = new ArrayList<>();
+        boolean complex = false;
+
+        StringBuilder literal = new StringBuilder();
+        boolean quote = false;
+        int i = 0;
+        while (i < pattern.length()) {
+            char ch = pattern.charAt(i);
+            if (ch == '\'') {
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                    literal.append('\'');
+                    i++;
+                } else {
+                    quote = !quote;
+                }
+            } else if (ch == '{' && !quote) {
+                int end = pattern.indexOf('}', i);
+                if (end == -1) {
+                    throw new IllegalArgumentException("Unmatched braces in the pattern: " + pattern);
+                }
+                String argument = pattern.substring(i + 1, end).trim();
+                if (argument.indexOf(',') != -1) {
+                    complex = true;
+                    break;
+                }
+                try {
+                    tmpArguments.add(Integer.parseInt(argument));
+                } catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException("Wrong argument number " + argument + " in the pattern: " + pattern, ex);
+                }
+                tmpLiterals.add(literal.toString());
+                literal.setLength(0);
+                i = end;
+            } else {
+                literal.append(ch);
+            }
+            i++;
+        }
+        tmpLiterals.add(literal.toString());
+
+        if (complex) {
+            // validate the pattern
+            new MessageFormat(pattern);
+            this.fallback = ThreadLocal.withInitial(() -> new MessageFormat(pattern));
+            this.literals = null;
+            this.arguments = null;
+        } else {
+            this.fallback = null;
+            this.literals = tmpLiterals.toArray(new String[tmpLiterals.size()]);
+            this.arguments = new int[tmpArguments.size()];
+            for (int k = 0; k < arguments.length; k++) {
+                arguments[k] = tmpArguments.get(k);
+            }
+        }
+    }
+
+    /**
+     * Compiles the pattern to the message template.
+     *
+     * @param pattern the {@link MessageFormat} pattern.
+     * @return the message template.
+     * @throws IllegalArgumentException if the pattern is invalid.
+     */
+    public static MessageTemplate compile(String pattern) {
+        return new MessageTemplate(pattern);
+    }
+
+    /**
+     * Gets the pattern.
+     *
+     * @return the pattern.
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Formats the message.
+     *
+     * @param parameters the message parameters.
+     * @return the formatted message.
+     */
+    public String format(Object... parameters) {
+        StringBuilder[] holder = BUFFER.get();
+        StringBuilder sb = holder[0];
+        if (sb == null) {
+            sb = new StringBuilder(256);
+        } else {
+            // the nested format call creates the own buffer
+            holder[0] = null;
+        }
+        try {
+            return appendTo(sb, parameters).toString();
+        } finally {
+            if (sb.capacity() <= MAX_BUFFER_CAPACITY) {
+                sb.setLength(0);
+                holder[0] = sb;
+            }
+        }
+    }
+
+    /**
+     * Appends the formatted message to the string builder.
+     *
+     * @param sb the string builder.
+     * @param parameters the message parameters.
+     * @return the string builder.
+     */
+    public StringBuilder appendTo(StringBuilder sb, Object[] parameters) {
+        if (fallback != null) {
+            sb.append(fallback.get().format(parameters, new StringBuffer(), null));
+            return sb;
+        }
+        for (int i = 0; i < arguments.length; i++) {
+            sb.append(literals[i]);
+            appendArgument(sb, arguments[i], parameters);
+        }
+        sb.append(literals[arguments.length]);
+        return sb;
+    }
+
+    /**
+     * Creates the message object which formats the message in the
+     * {@link Object#toString()} method.
+     *
+     * @param parameters the message parameters.
+     * @return the message object.
+     */
+    public Object message(Object... parameters) {
+        return new Message(this, parameters);
+    }
+
+    /**
+     * Appends the argument the same way as the {@link MessageFormat} does for
+     * the argument without format type.
+     *
+     * @param sb the string builder.
+     * @param index the argument index.
+     * @param parameters the message parameters.
+     */
+    private static void appendArgument(StringBuilder sb, int index, Object[] parameters) {
+        if (parameters == null || index >= parameters.length) {
+            sb.append('{').append(index).append('}');
+            return;
+        }
+        Object value = parameters[index];
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof String) {
+            sb.append((String) value);
+        } else if (value instanceof MessageArgument) {
+            ((MessageArgument) value).appendTo(sb);
+        } else if (value instanceof Number) {
+            sb.append(NUMBER_FORMAT.get().format(value));
+        } else if (value instanceof Date) {
+            sb.append(DATE_FORMAT.get().format(value));
+        } else {
+            sb.append(value.toString());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    /**
+     * The message which is formatted in the {@link #toString()} method.
+     */
+    private static final class Message {
+
+        /**
+         * The message template.
+         */
+        private final MessageTemplate template;
+
+        /**
+         * The message parameters.
+         */
+        private final Object[] parameters;
+
+        /**
+         * The default constructor.
+         *
+         * @param template the message template.
+         * @param parameters the message parameters.
+         */
+        Message(MessageTemplate template, Object[] parameters) {
+            this.template = template;
+            this.parameters = parameters;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return template.format(parameters);
+        }
+    }
+}
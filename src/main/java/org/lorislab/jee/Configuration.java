@@ -17,6 +17,7 @@ package org.lorislab.jee;
 
 import java.text.MessageFormat;
 import java.util.Properties;
+import org.lorislab.java.text.MessageTemplate;
 import org.lorislab.jee.cdi.util.JelConfig;
 
 /**
@@ -28,28 +29,60 @@ public final class Configuration {
     public static final String PATTERN_NO_USER;
     public static final String PATTERN_RESULT_VOID;
 
-    private static final MessageFormat MESSAGE_TRACE_START;
-    private static final MessageFormat MESSAGE_TRACE_END;
-    private static final MessageFormat MESSAGE_SERVICE_EXCEPTION;
+    /**
+     * The result of the asynchronous service call which is not completed.
+     */
+    public static final String PATTERN_RESULT_PENDING;
 
-    private static final MessageFormat MESSAGE_START;
-    private static final MessageFormat MESSAGE_SUCCEED;
-    private static final MessageFormat MESSAGE_FAILED;
-    private static final MessageFormat MESSAGE_EXCEPTION;
+    /**
+     * The lazy format flag. If {@code true} the service parameters and result
+     * are rendered only if the log message is written.
+     */
+    public static final boolean LAZY_FORMAT;
+
+    /**
+     * The JSON format flag. If {@code true} the service and REST events are
+     * logged as the JSON objects instead of the message templates.
+     */
+    public static final boolean JSON_FORMAT;
+
+    private static final MessageTemplate MESSAGE_TRACE_START;
+    private static final MessageTemplate MESSAGE_TRACE_END;
+    private static final MessageTemplate MESSAGE_SERVICE_EXCEPTION;
+    private static final MessageTemplate MESSAGE_CALL_TREE;
+
+    private static final MessageTemplate MESSAGE_TAIL_DISCARDED;
+
+    private static final MessageTemplate MESSAGE_AGGREGATE;
+
+    private static final MessageTemplate MESSAGE_START;
+    private static final MessageTemplate MESSAGE_SUCCEED;
+    private static final MessageTemplate MESSAGE_FAILED;
+    private static final MessageTemplate MESSAGE_EXCEPTION;
+    private static final MessageTemplate MESSAGE_EXCEPTION_REPEATED;
+    private static final MessageTemplate MESSAGE_EXCEPTION_SUPPRESSED;
     
     static {
         Properties prop = JelConfig.loadConfig();
         PATTERN_NO_USER = prop.getProperty("org.lorislab.jel.logger.nouser", "anonymous");
         PATTERN_RESULT_VOID = prop.getProperty("org.lorislab.jel.logger.result.void", "void");
+        PATTERN_RESULT_PENDING = prop.getProperty("org.lorislab.jel.logger.result.pending", "pending");
+        LAZY_FORMAT = JelConfig.getBooleanProperty("org.lorislab.jel.logger.lazy", true, prop);
+        JSON_FORMAT = "json".equalsIgnoreCase(prop.getProperty("org.lorislab.jel.logger.format", "text").trim());
 
-        MESSAGE_TRACE_START = new MessageFormat(prop.getProperty("org.lorislab.jel.logger.trace.start", "{0}->{1}:{2}()"));
-        MESSAGE_TRACE_END = new MessageFormat(prop.getProperty("org.lorislab.jel.logger.trace.end", "{0}-->{1}:{2}() {3}"));
-        MESSAGE_SERVICE_EXCEPTION = new MessageFormat(prop.getProperty("org.lorislab.jel.logger.service.exception", "Service exception:\nrequestId:{0}\nclass:{1}\nkey:{2}\nparams:{3}\nnparams:{4}\nmsg:{5}"));
+        MESSAGE_TRACE_START = MessageTemplate.compile(prop.getProperty("org.lorislab.jel.logger.trace.start", "{0}->{1}:{2}()"));
+        MESSAGE_TRACE_END = MessageTemplate.compile(prop.getProperty("org.lorislab.jel.logger.trace.end", "{0}-->{1}:{2}() {3}"));
+        MESSAGE_CALL_TREE = MessageTemplate.compile(prop.getProperty("org.lorislab.jel.logger.calltree", "Request {0} [{1}s] over the budget [{2}s] call tree:{3}"));
+        MESSAGE_TAIL_DISCARDED = MessageTemplate.compile(prop.getProperty("org.lorislab.jel.logger.tail.discarded", "Request {0} discarded {1} log messages over the buffer size {2}"));
+        MESSAGE_AGGREGATE = MessageTemplate.compile(prop.getProperty("org.lorislab.jel.logger.aggregate.summary", "{0}:{1} [{2}s] count:{3} failed:{4} min:{5}s mean:{6}s max:{7}s p50:{8}s p90:{9}s p99:{10}s"));
+        MESSAGE_SERVICE_EXCEPTION = MessageTemplate.compile(prop.getProperty("org.lorislab.jel.logger.service.exception", "Service exception:\nrequestId:{0}\nclass:{1}\nkey:{2}\nparams:{3}\nnparams:{4}\nmsg:{5}"));
 
-        MESSAGE_START = new MessageFormat(prop.getProperty("org.lorislab.jel.logger.start", "{0}:{1}({2}) started."));
-        MESSAGE_SUCCEED = new MessageFormat(prop.getProperty("org.lorislab.jel.logger.succeed", "{0}:{1}({2}):{3} [{4}s] succeed."));
-        MESSAGE_FAILED = new MessageFormat(prop.getProperty("org.lorislab.jel.logger.failed", "{0}:{1}({2}):{3} [{4}s] failed."));
-        MESSAGE_EXCEPTION = new MessageFormat(prop.getProperty("org.lorislab.jel.logger.exception", "Exception in [{0}] {1}:{2} error"));        
+        MESSAGE_START = MessageTemplate.compile(prop.getProperty("org.lorislab.jel.logger.start", "{0}:{1}({2}) started."));
+        MESSAGE_SUCCEED = MessageTemplate.compile(prop.getProperty("org.lorislab.jel.logger.succeed", "{0}:{1}({2}):{3} [{4}s{5}] succeed."));
+        MESSAGE_FAILED = MessageTemplate.compile(prop.getProperty("org.lorislab.jel.logger.failed", "{0}:{1}({2}):{3} [{4}s{5}] failed."));
+        MESSAGE_EXCEPTION = MessageTemplate.compile(prop.getProperty("org.lorislab.jel.logger.exception", "Exception in [{0}] {1}:{2} error"));
+        MESSAGE_EXCEPTION_REPEATED = MessageTemplate.compile(prop.getProperty("org.lorislab.jel.logger.exception.repeated", "Exception in [{0}] {1}:{2} error [{3}] repeated, stack trace in [{4}]"));
+        MESSAGE_EXCEPTION_SUPPRESSED = MessageTemplate.compile(prop.getProperty("org.lorislab.jel.logger.exception.suppressed", "Suppressed {0} stack traces of [{1}] in the last [{2}s]"));
     }
     
     private Configuration() {
@@ -63,10 +96,30 @@ public final class Configuration {
         return msg(MESSAGE_TRACE_END, parameters);
     }
 
+    public static Object msgCallTree(Object... parameters) {
+        return msg(MESSAGE_CALL_TREE, parameters);
+    }
+
+    public static Object msgTailDiscarded(Object... parameters) {
+        return msg(MESSAGE_TAIL_DISCARDED, parameters);
+    }
+
+    public static Object msgAggregate(Object... parameters) {
+        return msg(MESSAGE_AGGREGATE, parameters);
+    }
+
     public static Object msgException(Object... parameters) {
         return msg(MESSAGE_EXCEPTION, parameters);
     }
     
+    public static Object msgExceptionRepeated(Object... parameters) {
+        return msg(MESSAGE_EXCEPTION_REPEATED, parameters);
+    }
+
+    public static Object msgExceptionSuppressed(Object... parameters) {
+        return msg(MESSAGE_EXCEPTION_SUPPRESSED, parameters);
+    }
+
     public static Object msgServiceException(Object... parameters) {
         return msg(MESSAGE_SERVICE_EXCEPTION, parameters);
     }
@@ -83,11 +136,36 @@ public final class Configuration {
         return msg(MESSAGE_START, parameters);
     }
 
+    /**
+     * Creates the log message which is formatted only if the message is
+     * written.
+     *
+     * @param template the message template.
+     * @param parameters the message parameters.
+     * @return the log message.
+     */
+    public static Object msg(MessageTemplate template, Object[] parameters) {
+        return template.message(parameters);
+    }
+
+    /**
+     * Creates the log message which is formatted only if the message is
+     * written.
+     *
+     * @param mf the message format.
+     * @param parameters the message parameters.
+     * @return the log message.
+     * @deprecated the {@link MessageFormat} is not thread-safe, use the
+     * {@link #msg(MessageTemplate, Object[])} method.
+     */
+    @Deprecated
     public static Object msg(MessageFormat mf, Object[] parameters) {
         return new Object() {
             @Override
             public String toString() {
-                return mf.format(parameters, new StringBuffer(), null).toString();
+                synchronized (mf) {
+                    return mf.format(parameters, new StringBuffer(), null).toString();
+                }
             }
         };
     }
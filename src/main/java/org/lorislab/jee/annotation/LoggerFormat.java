@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the {@code <Class>LoggerParameter} bean for the class at compile
+ * time. The generated logger parameter reads the fields directly or by the
+ * getter method without the reflection. The private fields without the
+ * getter method are not logged.
+ *
+ * @author Andrej Petras
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.CLASS)
+public @interface LoggerFormat {
+
+    /**
+     * The maximal number of characters of the logged object. The value
+     * {@code -1} disables the limit.
+     */
+    int maxLength() default -1;
+
+    /**
+     * If {@code true} only the fields annotated with {@link Field} are
+     * logged.
+     */
+    boolean annotatedOnly() default false;
+
+    /**
+     * The field format.
+     */
+    @Target(ElementType.FIELD)
+    @Retention(RetentionPolicy.CLASS)
+    @interface Field {
+
+        /**
+         * If {@code true} the field is not logged.
+         */
+        boolean exclude() default false;
+
+        /**
+         * If {@code true} the field value is replaced by {@code ***}.
+         */
+        boolean mask() default false;
+
+        /**
+         * The maximal number of characters of the field value. The value
+         * {@code -1} disables the limit.
+         */
+        int maxLength() default -1;
+    }
+}
@@ -39,6 +39,57 @@ public @interface LoggerService {
     
     @Nonbinding boolean stacktrace() default true;
 
+    /**
+     * Logs one of the {@code sample} invocations. The failed invocations are
+     * always logged. The value {@code -1} uses the configuration
+     * {@code org.lorislab.jel.logger.sample}.
+     */
+    @Nonbinding int sample() default -1;
+
+    /**
+     * The maximal number of the logged invocations per second. The failed
+     * invocations are always logged. The value {@code -1} uses the
+     * configuration {@code org.lorislab.jel.logger.rate}.
+     */
+    @Nonbinding int rate() default -1;
+
+    /**
+     * The threshold time in milliseconds. If set the started message is not
+     * logged and the succeed message is logged only for the invocations which
+     * take longer than the threshold time. The failed invocations are always
+     * logged. The value {@code -1} uses the configuration
+     * {@code org.lorislab.jel.logger.threshold}, the value {@code 0} disables
+     * the threshold. The invocations under the threshold are only counted in
+     * the method metrics, which must be enabled by the configuration
+     * {@code org.lorislab.jel.metrics=true}. Without the metrics these
+     * invocations are not recorded at all.
+     */
+    @Nonbinding long threshold() default -1;
+
+    /**
+     * The maximal number of characters of the logged parameter or result.
+     * The value {@code -1} uses the configuration
+     * {@code org.lorislab.jel.logger.max.param}, the value {@code 0} disables
+     * the limit.
+     */
+    @Nonbinding int maxParam() default -1;
+
+    /**
+     * The maximal number of characters of all logged parameters. The value
+     * {@code -1} uses the configuration
+     * {@code org.lorislab.jel.logger.max.line}, the value {@code 0} disables
+     * the limit.
+     */
+    @Nonbinding int maxLine() default -1;
+
+    /**
+     * The number of invocations per second over which the succeed invocations
+     * are aggregated to one summary message per interval. The value {@code 0}
+     * aggregates all invocations. The value {@code -1} uses the configuration
+     * {@code org.lorislab.jel.logger.aggregate}, which is disabled by default.
+     */
+    @Nonbinding int aggregate() default -1;
+
     /**
      * If present, do not include this parameter in the logger.
      */
@@ -27,7 +27,11 @@ import javax.enterprise.inject.spi.AnnotatedType;
 /**
  *
  * @author Andrej Petras
+ * @deprecated the interceptor binding is added by the
+ * {@link javax.enterprise.inject.spi.configurator.AnnotatedTypeConfigurator},
+ * the class is not used and will be removed.
  */
+@Deprecated
 public class AnnotatedTypeWrapper<T> implements AnnotatedType<T> {
 
   private final AnnotatedType<T> wrapped;
@@ -18,18 +18,32 @@ package org.lorislab.jee.cdi;
 import org.lorislab.jee.annotation.LoggerService;
 import org.lorislab.jee.cdi.util.JelConfig;
 import org.lorislab.jee.interceptor.CdiServiceInterceptor;
+import org.lorislab.jee.interceptor.InvocationAggregate;
+import org.lorislab.jee.interceptor.StackTraceFilter;
+import org.lorislab.jee.logger.LogWriter;
 import org.lorislab.jee.logger.LoggerParameter;
+import org.lorislab.jee.metrics.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Pattern;
+import javax.decorator.Decorator;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.context.RequestScoped;
 import javax.enterprise.context.SessionScoped;
 import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.AnnotatedMethod;
 import javax.enterprise.inject.spi.AnnotatedType;
+import javax.enterprise.inject.spi.BeforeShutdown;
 import javax.enterprise.inject.spi.Extension;
 import javax.enterprise.inject.spi.ProcessAnnotatedType;
 import javax.enterprise.inject.spi.WithAnnotations;
+import javax.enterprise.inject.spi.configurator.AnnotatedTypeConfigurator;
+import javax.interceptor.Interceptor;
 
 /**
  *
@@ -39,28 +53,189 @@ public class CdiInterceptorBindingExtension implements Extension {
 
     private static final String PROPERTY_CDI_AUTOBINDING = "org.lorislab.jel.base.interceptor.cdi.autobinding";
 
+    private static final String PROPERTY_CDI_INCLUDE = "org.lorislab.jel.base.interceptor.cdi.include";
+
+    private static final String PROPERTY_CDI_EXCLUDE = "org.lorislab.jel.base.interceptor.cdi.exclude";
+
     public static final boolean CDI_AUTOBINDING;
 
+    /**
+     * The class name patterns of the beans for the automatic binding. The
+     * empty list includes all beans.
+     */
+    private static final List<Pattern> INCLUDES;
+
+    /**
+     * The class name patterns of the beans excluded from the automatic
+     * binding.
+     */
+    private static final List<Pattern> EXCLUDES;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(CdiInterceptorBindingExtension.class);
 
     static {
-        CDI_AUTOBINDING = JelConfig.getBooleanProperty(PROPERTY_CDI_AUTOBINDING, true, CdiInterceptorBindingExtension.class);
+        Properties prop = JelConfig.loadConfig(CdiInterceptorBindingExtension.class);
+        CDI_AUTOBINDING = JelConfig.getBooleanProperty(PROPERTY_CDI_AUTOBINDING, true, prop);
+        INCLUDES = createPatterns(prop.getProperty(PROPERTY_CDI_INCLUDE));
+        EXCLUDES = createPatterns(prop.getProperty(PROPERTY_CDI_EXCLUDE));
+    }
+
+    /**
+     * Creates the class name patterns. The patterns are separated by the
+     * comma, the {@code *} matches any characters. The pattern without
+     * {@code *} matches the class name and all classes in the package.
+     *
+     * @param value the patterns.
+     * @return the list of the patterns.
+     */
+    static List<Pattern> createPatterns(String value) {
+        List<Pattern> result = new ArrayList<>();
+        if (value != null) {
+            for (String item : value.split(",")) {
+                String tmp = item.trim();
+                if (!tmp.isEmpty()) {
+                    StringBuilder regex = new StringBuilder();
+                    String[] parts = tmp.split("\\*", -1);
+                    for (int i = 0; i < parts.length; i++) {
+                        if (i > 0) {
+                            regex.append(".*");
+                        }
+                        regex.append(Pattern.quote(parts[i]));
+                    }
+                    if (tmp.indexOf('*') == -1) {
+                        regex.append("(\\..*)?");
+                    }
+                    result.add(Pattern.compile(regex.toString()));
+                }
+            }
+        }
+        return result;
     }
-    
-    @SuppressWarnings("unchecked")
-    <T> void processAnnotatedType(@Observes @WithAnnotations({RequestScoped.class, SessionScoped.class, ApplicationScoped.class}) ProcessAnnotatedType<T> processAnnotatedType) {
-        if (CDI_AUTOBINDING) {
-            AnnotatedType<T> annotatedType = processAnnotatedType.getAnnotatedType();
-            Class clazz = annotatedType.getJavaClass();
-            if (!clazz.isAnnotationPresent(LoggerService.class) && !LoggerParameter.class.isAssignableFrom(clazz)) {
-                LOGGER.debug("Found bean: {} activate the  LoggerService binding. ", clazz.getName());
-                LoggerService annotation = CdiServiceInterceptor.class.getAnnotation(LoggerService.class);
-
-                AnnotatedTypeWrapper<T> wrapper = new AnnotatedTypeWrapper<>(annotatedType, annotatedType.getAnnotations());
-                wrapper.addAnnotation(annotation);
-
-                processAnnotatedType.setAnnotatedType(wrapper);
+
+    /**
+     * Checks if the class name matches any of the patterns.
+     *
+     * @param className the class name.
+     * @param patterns the patterns.
+     * @return {@code true} if the class name matches.
+     */
+    static boolean matches(String className, List<Pattern> patterns) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(className).matches()) {
+                return true;
             }
         }
+        return false;
+    }
+
+    /**
+     * Checks if the bean is bound to the interceptor automatically.
+     *
+     * @param className the bean class name.
+     * @return {@code true} for the automatic binding.
+     */
+    static boolean isAutoBinding(String className) {
+        return CDI_AUTOBINDING
+                && (INCLUDES.isEmpty() || matches(className, INCLUDES))
+                && !matches(className, EXCLUDES);
+    }
+
+    /**
+     * Binds the interceptor to the methods which are logged. The class binding
+     * is used if all business methods are logged, otherwise the interceptor is
+     * bound only to the logged methods. The beans and methods with
+     * {@code log = false} are not intercepted.
+     *
+     * @param <T> the bean type.
+     * @param processAnnotatedType the process annotated type event.
+     */
+    <T> void processAnnotatedType(@Observes @WithAnnotations({RequestScoped.class, SessionScoped.class, ApplicationScoped.class, LoggerService.class}) ProcessAnnotatedType<T> processAnnotatedType) {
+        AnnotatedType<T> annotatedType = processAnnotatedType.getAnnotatedType();
+        Class<T> clazz = annotatedType.getJavaClass();
+        if (LoggerParameter.class.isAssignableFrom(clazz) || clazz.isAnnotationPresent(Interceptor.class) || clazz.isAnnotationPresent(Decorator.class)) {
+            return;
+        }
+
+        LoggerService classAno = clazz.getAnnotation(LoggerService.class);
+        if (classAno == null && isScoped(annotatedType) && isAutoBinding(clazz.getName())) {
+            classAno = CdiServiceInterceptor.class.getAnnotation(LoggerService.class);
+        }
+        boolean classLog = classAno != null && classAno.log();
+
+        boolean methodOptOut = false;
+        boolean methodAnnotation = false;
+        for (AnnotatedMethod<? super T> method : annotatedType.getMethods()) {
+            LoggerService ano = method.getAnnotation(LoggerService.class);
+            if (ano != null && isBusinessMethod(method)) {
+                methodAnnotation = true;
+                methodOptOut = methodOptOut || !ano.log();
+            }
+        }
+
+        if (classLog && !methodOptOut) {
+            if (!annotatedType.isAnnotationPresent(LoggerService.class)) {
+                LOGGER.debug("Found bean: {} activate the LoggerService binding.", clazz.getName());
+                processAnnotatedType.configureAnnotatedType().add(classAno);
+            }
+            return;
+        }
+        if (!methodAnnotation && !annotatedType.isAnnotationPresent(LoggerService.class)) {
+            return;
+        }
+
+        // bind the interceptor only to the logged methods
+        LOGGER.debug("Found bean: {} activate the LoggerService method binding.", clazz.getName());
+        AnnotatedTypeConfigurator<T> configurator = processAnnotatedType.configureAnnotatedType();
+        configurator.remove(a -> a instanceof LoggerService);
+        LoggerService defaultAno = classAno;
+        configurator.filterMethods(CdiInterceptorBindingExtension::isBusinessMethod).forEach(m -> {
+            LoggerService ano = m.getAnnotated().getAnnotation(LoggerService.class);
+            if (ano != null) {
+                if (!ano.log()) {
+                    m.remove(a -> a instanceof LoggerService);
+                }
+            } else if (classLog) {
+                m.add(defaultAno);
+            }
+        });
+    }
+
+    /**
+     * Checks if the bean has the normal scope for the automatic binding.
+     *
+     * @param annotatedType the annotated type.
+     * @return {@code true} for the request, session or application scoped
+     * bean.
+     */
+    private static boolean isScoped(AnnotatedType<?> annotatedType) {
+        return annotatedType.isAnnotationPresent(RequestScoped.class)
+                || annotatedType.isAnnotationPresent(SessionScoped.class)
+                || annotatedType.isAnnotationPresent(ApplicationScoped.class);
+    }
+
+    /**
+     * Checks if the method can be intercepted.
+     *
+     * @param method the annotated method.
+     * @return {@code true} for the business method.
+     */
+    private static boolean isBusinessMethod(AnnotatedMethod<?> method) {
+        int modifiers = method.getJavaMember().getModifiers();
+        return !Modifier.isStatic(modifiers) && !Modifier.isPrivate(modifiers)
+                && method.getJavaMember().getDeclaringClass() != Object.class;
+    }
+
+    /**
+     * Writes the remaining asynchronous log events, the aggregated invocation
+     * summaries and the suppressed stack traces and unregisters the metrics
+     * before the shutdown.
+     *
+     * @param event the before shutdown event.
+     */
+    void beforeShutdown(@Observes BeforeShutdown event) {
+        MetricsRegistry.shutdown();
+        InvocationAggregate.shutdown();
+        StackTraceFilter.shutdown();
+        LogWriter.shutdown();
     }
 }
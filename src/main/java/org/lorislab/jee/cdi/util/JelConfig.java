@@ -70,4 +70,44 @@ public class JelConfig {
     public static boolean getBooleanProperty(String propertyName, Boolean propertyDefault, Properties prop) {
         return Boolean.valueOf(prop.getProperty(propertyName, "" + propertyDefault));
     }     
+
+    /**
+     * Gets the integer property. The invalid value is logged and the default
+     * value is returned.
+     *
+     * @param propertyName the property name.
+     * @param propertyDefault the default value.
+     * @param prop the configuration.
+     * @return the property value or the default value.
+     */
+    public static int getIntProperty(String propertyName, int propertyDefault, Properties prop) {
+        long value = getLongProperty(propertyName, propertyDefault, prop);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            LOGGER.warn("Invalid configuration value {}={}, the default value {} is used.", propertyName, value, propertyDefault);
+            return propertyDefault;
+        }
+        return (int) value;
+    }
+
+    /**
+     * Gets the long property. The invalid value is logged and the default
+     * value is returned.
+     *
+     * @param propertyName the property name.
+     * @param propertyDefault the default value.
+     * @param prop the configuration.
+     * @return the property value or the default value.
+     */
+    public static long getLongProperty(String propertyName, long propertyDefault, Properties prop) {
+        String value = prop.getProperty(propertyName);
+        if (value == null) {
+            return propertyDefault;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException ex) {
+            LOGGER.warn("Invalid configuration value {}={}, the default value {} is used.", propertyName, value, propertyDefault);
+            return propertyDefault;
+        }
+    }
 }
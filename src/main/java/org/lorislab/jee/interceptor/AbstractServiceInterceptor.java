@@ -17,7 +17,11 @@ package org.lorislab.jee.interceptor;
 
 import java.io.Serializable;
 import java.lang.reflect.InvocationTargetException;
-import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import javax.inject.Inject;
 import javax.interceptor.AroundInvoke;
 import javax.interceptor.AroundTimeout;
@@ -27,7 +31,10 @@ import org.lorislab.jee.exception.LoggerServiceException;
 import org.lorislab.jee.exception.ServiceException;
 import org.lorislab.jee.annotation.LoggerService;
 import org.lorislab.jee.Configuration;
+import org.lorislab.jee.logger.JsonMessage;
+import org.lorislab.jee.logger.LogWriter;
 import org.lorislab.jee.logger.LoggerFormaterService;
+import org.lorislab.jee.metrics.MethodMetrics;
 import org.lorislab.java.util.ResourceManager;
 import static org.lorislab.jee.interceptor.RequestDataThreadHolder.createAndSet;
 import org.slf4j.Logger;
@@ -57,10 +64,11 @@ public abstract class AbstractServiceInterceptor implements Serializable {
 
     public Object execution(final InvocationContext ic, Class clazz) throws Exception {
         Object result = null;
-        LoggerService ano = InterceptorUtil.getLoggerServiceAno(clazz, ic.getMethod());
+        InvocationDescriptor descriptor = InvocationDescriptor.get(clazz, ic.getMethod());
+        LoggerService ano = descriptor.getAnnotation();
         if (ano.log()) {
-            String className = getClassName(clazz);
-            String methodName = ic.getMethod().getName();
+            String className = descriptor.getClassName();
+            String methodName = descriptor.getMethodName();
             String principal = getPrincipal();
             if (principal == null) {
                 principal = Configuration.PATTERN_NO_USER;
@@ -73,74 +81,68 @@ public abstract class AbstractServiceInterceptor implements Serializable {
                 cleanRequest = true;
             }
 
-            if (data.isTrace()) {
-                LOGGER.trace("{}", Configuration.msgTraceStart(data.peekTrace(), className, methodName));
+            if (data.isTrace() && LOGGER.isTraceEnabled()) {
+                LogWriter.trace(LOGGER, Configuration.msgTraceStart(data.peekTrace(), className, methodName));
             }
-            data.addTrace(className);
+            data.addTrace(className, methodName, System.nanoTime());
 
-
-            Logger logger = LoggerFactory.getLogger(className);
-            String parameters = loggerFormater.getValuesString(ic.getParameters(), ic.getMethod().getParameters());
+            Logger logger = descriptor.getLogger();
+            boolean info = logger.isInfoEnabled();
+            boolean sampled = info && descriptor.isSampled();
+            Object parameters = null;
+            if (sampled) {
+                parameters = getParameters(ic, descriptor);
+            }
 
             InterceptorContext context = new InterceptorContext(data.getId(), principal, methodName, parameters);
-            logger.info("{}", Configuration.msgStart(context.principal, context.method, context.parameters));
+            if (sampled) {
+                LogWriter.info(logger, msgStart(data, className, context));
+            }
             try {
                 result = ic.proceed();
-
-                context.time = InterceptorUtil.intervalToString(context.startTime, System.currentTimeMillis());
-                if (ic.getMethod().getReturnType() == Void.TYPE) {
-                    context.result = Configuration.PATTERN_RESULT_VOID;
-                } else {
-                    context.result = loggerFormater.getValue(result);
-                }
-                // log the success message
-                logger.info("{}", Configuration.msgSucceed(context.principal, context.method, context.parameters, context.result, context.time));
-            } catch (Throwable e) {
-                Exception ex;
-                
-                if (e instanceof Error) {
-                    ex = new RuntimeException(e.getMessage(), e);
-                } else {
-                    ex = (Exception) e;
-                }
-                
-                
-                if (e instanceof InvocationTargetException) {
-                    InvocationTargetException ite = (InvocationTargetException) e;
-                    ex = (Exception) ite.getCause();
-                }
-
-                context.time = InterceptorUtil.intervalToString(context.startTime, System.currentTimeMillis());
-                context.result = loggerFormater.getValue(ex);
-                // log the failed message
-                logger.error("{}", Configuration.msgFailed(context.principal, context.method, context.parameters, context.result, context.time));
-
-                boolean stacktrace = ano.stacktrace();
-                if (stacktrace) {
-                    ServiceException sec = null;
-                    if (ex instanceof LoggerServiceException) {
-                        LoggerServiceException lex = (LoggerServiceException) ex;
-                        stacktrace = !lex.isStackTraceLog();
-                        lex.setStackTraceLog(true);
-                    }
-                    if (ex instanceof ServiceException) {
-                        sec = (ServiceException) ex;
-                    }
-                    if (stacktrace) {
-                        if (sec != null) {
-                            String msg = ResourceManager.getMessage(sec.getKey(), sec.getParameters(), null);
-                            logger.error("{}", Configuration.msgServiceException(context.id, sec.getClass().getName(), sec.getKey(), sec.getParameters(), sec.getNamedParameters(), msg));
+                if (descriptor.isAsync() && result instanceof CompletionStage) {
+                    // log the service call when the stage completes
+                    RequestData snapshot = data.fork();
+                    InterceptorContext asyncContext = new InterceptorContext(context);
+                    context.result = Configuration.PATTERN_RESULT_PENDING;
+                    ((CompletionStage<?>) result).whenComplete((value, error) -> {
+                        RequestData previous = RequestDataContext.attach(snapshot);
+                        try {
+                            if (error == null) {
+                                succeed(ic, descriptor, asyncContext, sampled, value);
+                            } else {
+                                failed(ic, descriptor, asyncContext, unwrapAsync(error));
+                            }
+                        } finally {
+                            RequestDataThreadHolder.restore(previous);
+                        }
+                    });
+                } else if (descriptor.isAsync() && result instanceof Future) {
+                    Future<?> future = (Future<?>) result;
+                    if (future.isCancelled()) {
+                        failed(ic, descriptor, context, new CancellationException("The future of the service call was cancelled."));
+                    } else if (future.isDone()) {
+                        try {
+                            succeed(ic, descriptor, context, sampled, future.get());
+                        } catch (ExecutionException ee) {
+                            failed(ic, descriptor, context, unwrapAsync(ee));
                         }
-                        logger.error("{}", Configuration.msgException(context.id, className, methodName), ex);
+                    } else {
+                        succeed(ic, descriptor, context, sampled, Configuration.PATTERN_RESULT_PENDING);
                     }
+                } else {
+                    succeed(ic, descriptor, context, sampled, result);
                 }
+            } catch (Throwable e) {
+                Exception ex = unwrap(e);
+                failed(ic, descriptor, context, ex);
                 throw ex;
             } finally {
                 if (data.isTrace()) {
-                    data.popTrace();
+                    data.popTrace(System.nanoTime());
                 }
-                if (data.isTrace()) {
-                    LOGGER.trace("{}", Configuration.msgTraceEnd(className, data.peekTrace(), methodName, context.result));
+                if (data.isTrace() && LOGGER.isTraceEnabled()) {
+                    LogWriter.trace(LOGGER, Configuration.msgTraceEnd(className, data.peekTrace(), methodName, context.result));
                 }
                 if (cleanRequest) {
                     RequestDataThreadHolder.clear();
@@ -152,6 +154,262 @@ public abstract class AbstractServiceInterceptor implements Serializable {
         return result;
     }
 
+    /**
+     * Logs the succeed service call.
+     *
+     * @param ic the invocation context.
+     * @param descriptor the invocation descriptor.
+     * @param context the interceptor context.
+     * @param sampled the sampled invocation flag.
+     * @param result the service result.
+     */
+    private void succeed(InvocationContext ic, InvocationDescriptor descriptor, InterceptorContext context, boolean sampled, Object result) {
+        long duration = System.nanoTime() - context.startTime;
+        boolean slow = descriptor.isSlow(duration);
+        usage(descriptor, context);
+        MethodMetrics metrics = descriptor.getMetrics();
+        if (metrics != null) {
+            metrics.record(duration, false);
+            if (slow) {
+                metrics.slow();
+            }
+        }
+        InvocationAggregate aggregate = descriptor.getAggregate();
+        if (aggregate != null) {
+            aggregate.record(duration, false);
+        }
+        Logger logger = descriptor.getLogger();
+        // the slow invocations are logged without sampling and in the threshold mode
+        boolean succeed = sampled || (slow && logger.isInfoEnabled());
+        if (succeed || LOGGER.isTraceEnabled()) {
+            context.time = new ElapsedTime(duration);
+            if (descriptor.isVoidResult()) {
+                context.result = Configuration.PATTERN_RESULT_VOID;
+            } else {
+                context.result = getResult(result, descriptor);
+            }
+        }
+        // log the success message
+        if (succeed) {
+            if (context.parameters == null) {
+                context.parameters = getParameters(ic, descriptor);
+            }
+            LogWriter.info(logger, msgFinished(JsonMessage.SUCCEED, RequestDataThreadHolder.get(), descriptor.getClassName(), context));
+        }
+    }
+
+    /**
+     * Logs the failed service call.
+     *
+     * @param ic the invocation context.
+     * @param descriptor the invocation descriptor.
+     * @param context the interceptor context.
+     * @param ex the service exception.
+     */
+    private void failed(InvocationContext ic, InvocationDescriptor descriptor, InterceptorContext context, Exception ex) {
+        long duration = System.nanoTime() - context.startTime;
+        usage(descriptor, context);
+        MethodMetrics metrics = descriptor.getMetrics();
+        if (metrics != null) {
+            metrics.record(duration, true);
+        }
+        InvocationAggregate aggregate = descriptor.getAggregate();
+        if (aggregate != null) {
+            aggregate.record(duration, true);
+        }
+        context.time = new ElapsedTime(duration);
+        context.result = getResult(ex, descriptor);
+        Logger logger = descriptor.getLogger();
+        // log the failed message
+        if (logger.isErrorEnabled()) {
+            if (context.parameters == null) {
+                context.parameters = getParameters(ic, descriptor);
+            }
+            LogWriter.error(logger, msgFinished(JsonMessage.FAILED, RequestDataThreadHolder.get(), descriptor.getClassName(), context));
+        }
+
+        boolean stacktrace = descriptor.getAnnotation().stacktrace() && logger.isErrorEnabled();
+        if (stacktrace) {
+            ServiceException sec = null;
+            if (ex instanceof LoggerServiceException) {
+                LoggerServiceException lex = (LoggerServiceException) ex;
+                stacktrace = !lex.isStackTraceLog();
+                lex.setStackTraceLog(true);
+            }
+            if (ex instanceof ServiceException) {
+                sec = (ServiceException) ex;
+            }
+            if (stacktrace) {
+                StackTraceFilter.Occurrence occurrence = StackTraceFilter.check(logger, descriptor.getClassName(), descriptor.getMethodName(), ex, sec == null ? null : sec.getKey(), context.id);
+                if (Configuration.JSON_FORMAT) {
+                    logJsonException(logger, descriptor, context, ex, sec, occurrence);
+                } else if (occurrence.isFull()) {
+                    if (occurrence.getSuppressed() > 0) {
+                        StackTraceFilter.logSuppressed(logger, occurrence.getSuppressed(), ex.getClass().getName(), sec == null ? null : sec.getKey(), descriptor.getClassName(), descriptor.getMethodName(), context.id, StackTraceFilter.WINDOW);
+                    }
+                    if (sec != null) {
+                        String msg = ResourceManager.getMessage(sec.getKey(), sec.getParameters(), null);
+                        LogWriter.error(logger, Configuration.msgServiceException(context.id, sec.getClass().getName(), sec.getKey(), sec.getParameters(), sec.getNamedParameters(), msg));
+                    }
+                    LogWriter.error(logger, Configuration.msgException(context.id, descriptor.getClassName(), descriptor.getMethodName()), ex);
+                } else {
+                    LogWriter.error(logger, Configuration.msgExceptionRepeated(context.id, descriptor.getClassName(), descriptor.getMethodName(), ex.getClass().getName(), occurrence.getRequestId()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Logs the service exception as the JSON message. The stack trace is
+     * written in the JSON message.
+     *
+     * @param logger the service logger.
+     * @param descriptor the invocation descriptor.
+     * @param context the interceptor context.
+     * @param ex the service exception.
+     * @param sec the service exception or {@code null}.
+     * @param occurrence the stack trace occurrence.
+     */
+    private static void logJsonException(Logger logger, InvocationDescriptor descriptor, InterceptorContext context, Exception ex, ServiceException sec, StackTraceFilter.Occurrence occurrence) {
+        Object key = null;
+        String msg = null;
+        if (sec != null) {
+            key = sec.getKey();
+            msg = ResourceManager.getMessage(sec.getKey(), sec.getParameters(), null);
+        }
+        if (occurrence.isFull()) {
+            if (occurrence.getSuppressed() > 0) {
+                StackTraceFilter.logSuppressed(logger, occurrence.getSuppressed(), ex.getClass().getName(), key, descriptor.getClassName(), descriptor.getMethodName(), context.id, StackTraceFilter.WINDOW);
+            }
+            LogWriter.error(logger, JsonMessage.exception(JsonMessage.EXCEPTION, context.id, descriptor.getClassName(), descriptor.getMethodName(), -1)
+                    .error(ex, key, msg, true));
+        } else {
+            LogWriter.error(logger, JsonMessage.exception(JsonMessage.REPEATED, context.id, descriptor.getClassName(), descriptor.getMethodName(), -1)
+                    .error(ex, key, msg, false).suppressed(-1, occurrence.getRequestId()));
+        }
+    }
+
+    /**
+     * Measures the thread CPU time and allocated bytes of the invocation and
+     * records them in the metrics and, for the outermost service call, in the
+     * request data.
+     *
+     * @param descriptor the invocation descriptor.
+     * @param context the interceptor context.
+     */
+    private static void usage(InvocationDescriptor descriptor, InterceptorContext context) {
+        if (!ResourceUsage.ENABLED) {
+            return;
+        }
+        context.usage();
+        if (context.cpuTime < 0 && context.allocatedBytes < 0) {
+            return;
+        }
+        MethodMetrics metrics = descriptor.getMetrics();
+        if (metrics != null) {
+            metrics.recordUsage(context.cpuTime, context.allocatedBytes);
+        }
+        RequestData data = RequestDataThreadHolder.get();
+        // the outermost service call is the last open call of the request
+        if (data != null && data.getCallTree().getDepth() <= 1) {
+            data.addUsage(context.cpuTime, context.allocatedBytes);
+        }
+    }
+
+    /**
+     * Unwraps the service exception.
+     *
+     * @param e the thrown exception.
+     * @return the service exception.
+     */
+    private static Exception unwrap(Throwable e) {
+        if (e instanceof InvocationTargetException && e.getCause() instanceof Exception) {
+            return (Exception) e.getCause();
+        }
+        if (e instanceof Exception) {
+            return (Exception) e;
+        }
+        return new RuntimeException(e.getMessage(), e);
+    }
+
+    /**
+     * Unwraps the exception of the completed asynchronous result.
+     *
+     * @param e the completion exception.
+     * @return the service exception.
+     */
+    private static Exception unwrapAsync(Throwable e) {
+        Throwable tmp = e;
+        while ((tmp instanceof CompletionException || tmp instanceof ExecutionException) && tmp.getCause() != null) {
+            tmp = tmp.getCause();
+        }
+        return unwrap(tmp);
+    }
+
+    /**
+     * Creates the service start message.
+     *
+     * @param data the request data.
+     * @param className the service class name.
+     * @param context the interceptor context.
+     * @return the log message.
+     */
+    private static Object msgStart(RequestData data, String className, InterceptorContext context) {
+        if (Configuration.JSON_FORMAT) {
+            return JsonMessage.service(JsonMessage.STARTED, context.id, context.principal, className, context.method, context.parameters, null, -1, data.getClientHost());
+        }
+        return Configuration.msgStart(context.principal, context.method, context.parameters);
+    }
+
+    /**
+     * Creates the service succeed or failed message.
+     *
+     * @param status the status {@link JsonMessage#SUCCEED} or
+     * {@link JsonMessage#FAILED}.
+     * @param data the request data.
+     * @param className the service class name.
+     * @param context the interceptor context.
+     * @return the log message.
+     */
+    private static Object msgFinished(String status, RequestData data, String className, InterceptorContext context) {
+        if (Configuration.JSON_FORMAT) {
+            return JsonMessage.service(status, context.id, context.principal, className, context.method, context.parameters, context.result, context.time.getNanos(), data.getClientHost())
+                    .usage(context.cpuTime, context.allocatedBytes);
+        }
+        if (JsonMessage.FAILED.equals(status)) {
+            return Configuration.msgFailed(context.principal, context.method, context.parameters, context.result, context.time, context.getUsage());
+        }
+        return Configuration.msgSucceed(context.principal, context.method, context.parameters, context.result, context.time, context.getUsage());
+    }
+
+    /**
+     * Gets the log value of the service parameters.
+     *
+     * @param ic the invocation context.
+     * @param descriptor the invocation descriptor.
+     * @return the log value of the service parameters.
+     */
+    private Object getParameters(InvocationContext ic, InvocationDescriptor descriptor) {
+        if (Configuration.LAZY_FORMAT && !LogWriter.DEFERRED) {
+            return loggerFormater.getLazyValuesString(ic.getParameters(), descriptor.getExcludes(), descriptor.getMaxParam(), descriptor.getMaxLine());
+        }
+        return loggerFormater.getValuesString(ic.getParameters(), descriptor.getExcludes(), descriptor.getMaxParam(), descriptor.getMaxLine());
+    }
+
+    /**
+     * Gets the log value of the service result.
+     *
+     * @param value the result value or the exception.
+     * @param descriptor the invocation descriptor.
+     * @return the log value of the service result.
+     */
+    private Object getResult(Object value, InvocationDescriptor descriptor) {
+        if (Configuration.LAZY_FORMAT && !LogWriter.DEFERRED) {
+            return loggerFormater.getLazyValue(value, descriptor.getMaxParam());
+        }
+        return loggerFormater.getValue(value, descriptor.getMaxParam());
+    }
+
     protected Exception transformException(Exception ex) {
         return (Exception) ex;
     }
@@ -163,15 +421,7 @@ public abstract class AbstractServiceInterceptor implements Serializable {
      * @return the corresponding class name.
      */
     protected String getClassName(Class<?> clazz) {
-        String result = null;
-        if (clazz != null) {
-            result = clazz.getName();
-            int index = result.indexOf('$');
-            if (index != -1) {
-                result = result.substring(0, index);
-            }
-        }
-        return result;
+        return InterceptorUtil.getClassName(clazz);
     }
 
 }
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.lorislab.java.text.MessageArgument;
+import org.lorislab.jee.cdi.util.JelConfig;
+
+/**
+ * The call tree of the request. The tree keeps the stack of the open service
+ * calls and, if the latency budget is set, records each nested call with the
+ * start offset and the duration. The tree is not thread-safe and belongs to
+ * one request thread. The arrays are allocated with the first call, the
+ * empty tree of the forked request data has no arrays.
+ *
+ * @author Andrej Petras
+ */
+public final class CallTree implements MessageArgument, Serializable {
+
+    private static final long serialVersionUID = 4467352187446046381L;
+
+    /**
+     * The latency budget of the request in nanoseconds. The call tree of the
+     * request over the budget is logged. The value {@code 0} disables the
+     * recording.
+     */
+    public static final long BUDGET;
+
+    /**
+     * The maximal number of the recorded calls.
+     */
+    public static final int MAX_NODES;
+
+    /**
+     * The initial capacity.
+     */
+    private static final int CAPACITY = 8;
+
+    static {
+        Properties prop = JelConfig.loadConfig();
+        BUDGET = TimeUnit.MILLISECONDS.toNanos(JelConfig.getLongProperty("org.lorislab.jel.logger.calltree.budget", 0, prop));
+        MAX_NODES = Math.max(1, JelConfig.getIntProperty("org.lorislab.jel.logger.calltree.size", 256, prop));
+    }
+
+    /**
+     * The class names of the open calls.
+     */
+    private String[] stack;
+
+    /**
+     * The node indexes of the open calls.
+     */
+    private int[] stackNodes;
+
+    /**
+     * The number of the open calls.
+     */
+    private int depth;
+
+    /**
+     * The class names of the recorded calls.
+     */
+    private String[] classNames;
+
+    /**
+     * The method names of the recorded calls.
+     */
+    private String[] methods;
+
+    /**
+     * The start offsets of the recorded calls in nanoseconds.
+     */
+    private long[] starts;
+
+    /**
+     * The durations of the recorded calls in nanoseconds or {@code -1} for
+     * the open call.
+     */
+    private long[] durations;
+
+    /**
+     * The depths of the recorded calls.
+     */
+    private int[] depths;
+
+    /**
+     * The number of the recorded calls.
+     */
+    private int size;
+
+    /**
+     * The number of the calls which were not recorded.
+     */
+    private int dropped;
+
+    /**
+     * The start time of the tree in nanoseconds.
+     */
+    private long startNanos = System.nanoTime();
+
+    /**
+     * Checks if there is any open call.
+     *
+     * @return {@code true} if there is no open call.
+     */
+    public boolean isEmpty() {
+        return depth == 0;
+    }
+
+    /**
+     * Gets the number of open calls.
+     *
+     * @return the number of open calls.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Gets the class name of the current call.
+     *
+     * @return the class name of the current call.
+     * @throws java.util.EmptyStackException if there is no open call.
+     */
+    public String peek() {
+        if (depth == 0) {
+            throw new java.util.EmptyStackException();
+        }
+        return stack[depth - 1];
+    }
+
+    /**
+     * Gets the class name of the open call.
+     *
+     * @param index the index of the open call, {@code 0} is the first call.
+     * @return the class name of the open call.
+     * @throws IndexOutOfBoundsException if there is no such open call.
+     */
+    public String get(int index) {
+        if (index < 0 || index >= depth) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", depth: " + depth);
+        }
+        return stack[index];
+    }
+
+    /**
+     * Starts the call.
+     *
+     * @param className the class name.
+     * @param method the method name or {@code null}.
+     * @param nanos the start time in nanoseconds.
+     */
+    public void enter(String className, String method, long nanos) {
+        if (stack == null) {
+            stack = new String[CAPACITY];
+            stackNodes = new int[CAPACITY];
+        } else if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+            stackNodes = Arrays.copyOf(stackNodes, depth * 2);
+        }
+        stack[depth] = className;
+        stackNodes[depth] = record(className, method, nanos);
+        depth++;
+    }
+
+    /**
+     * Finishes the current call.
+     *
+     * @param nanos the end time in nanoseconds.
+     * @return the class name of the finished call.
+     * @throws java.util.EmptyStackException if there is no open call.
+     */
+    public String exit(long nanos) {
+        if (depth == 0) {
+            throw new java.util.EmptyStackException();
+        }
+        depth--;
+        String result = stack[depth];
+        stack[depth] = null;
+        int node = stackNodes[depth];
+        if (node >= 0) {
+            durations[node] = nanos - startNanos - starts[node];
+        }
+        return result;
+    }
+
+    /**
+     * Records the call if the budget is set.
+     *
+     * @param className the class name.
+     * @param method the method name.
+     * @param nanos the start time in nanoseconds.
+     * @return the node index or {@code -1} if the call is not recorded.
+     */
+    private int record(String className, String method, long nanos) {
+        if (BUDGET <= 0) {
+            return -1;
+        }
+        if (size == MAX_NODES) {
+            dropped++;
+            return -1;
+        }
+        if (classNames == null) {
+            int capacity = Math.min(CAPACITY, MAX_NODES);
+            classNames = new String[capacity];
+            methods = new String[capacity];
+            starts = new long[capacity];
+            durations = new long[capacity];
+            depths = new int[capacity];
+        } else if (size == classNames.length) {
+            int capacity = Math.min(size * 2, MAX_NODES);
+            classNames = Arrays.copyOf(classNames, capacity);
+            methods = Arrays.copyOf(methods, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            durations = Arrays.copyOf(durations, capacity);
+            depths = Arrays.copyOf(depths, capacity);
+        }
+        int node = size++;
+        classNames[node] = className;
+        methods[node] = method;
+        starts[node] = nanos - startNanos;
+        durations[node] = -1;
+        depths[node] = depth;
+        return node;
+    }
+
+    /**
+     * Gets the start time of the tree.
+     *
+     * @return the start time in nanoseconds.
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * Sets the start time of the tree.
+     *
+     * @param startNanos the start time in nanoseconds.
+     */
+    public void setStartNanos(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Gets the number of the recorded calls.
+     *
+     * @return the number of the recorded calls.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Appends the recorded calls to the string builder. Each call is on the
+     * new line with the start offset, the duration and the indentation of the
+     * call depth.
+     *
+     * @param sb the string builder.
+     */
+    @Override
+    public void appendTo(StringBuilder sb) {
+        for (int i = 0; i < size; i++) {
+            sb.append('\n');
+            for (int k = 0; k < depths[i]; k++) {
+                sb.append("  ");
+            }
+            sb.append('+');
+            InterceptorUtil.appendSeconds(sb, starts[i]);
+            sb.append("s ");
+            if (durations[i] < 0) {
+                sb.append("open");
+            } else {
+                InterceptorUtil.appendSeconds(sb, durations[i]);
+                sb.append('s');
+            }
+            sb.append(' ').append(classNames[i]);
+            if (methods[i] != null) {
+                sb.append(':').append(methods[i]);
+            }
+        }
+        if (dropped > 0) {
+            sb.append("\n... ").append(dropped).append(" calls not recorded");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        appendTo(sb);
+        return sb.toString();
+    }
+}
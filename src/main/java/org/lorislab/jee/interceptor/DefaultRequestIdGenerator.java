@@ -0,0 +1,113 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The default request id generator. The request id has the fixed width
+ * {@code nnnnnnnn-tttttttttttt-cccccccccccccccc} in hex format, where
+ * {@code n} is the random node prefix, {@code t} is the start time of the
+ * generator in milliseconds and {@code c} is the counter. The node prefix and
+ * the start time keep the ids unique across the nodes without coordination.
+ * Each thread reserves the block of the counter values from the global
+ * counter, so the generator does not contend on the shared state.
+ *
+ * @author Andrej Petras
+ */
+public class DefaultRequestIdGenerator implements RequestIdGenerator {
+
+    /**
+     * The number of counter values reserved by the thread.
+     */
+    private static final int BLOCK_SIZE = 1024;
+
+    /**
+     * The hex digits.
+     */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * The id prefix with the node and the start time.
+     */
+    private final char[] prefix;
+
+    /**
+     * The global counter.
+     */
+    private final AtomicLong counter = new AtomicLong();
+
+    /**
+     * The per-thread counter block. The item {@code 0} is the next value and
+     * the item {@code 1} is the end of the block.
+     */
+    private final ThreadLocal<long[]> block = ThreadLocal.withInitial(() -> new long[2]);
+
+    /**
+     * The default constructor.
+     */
+    public DefaultRequestIdGenerator() {
+        this(new SecureRandom().nextInt(), System.currentTimeMillis());
+    }
+
+    /**
+     * The constructor.
+     *
+     * @param node the node prefix.
+     * @param time the start time in milliseconds.
+     */
+    DefaultRequestIdGenerator(int node, long time) {
+        char[] tmp = new char[22];
+        appendHex(tmp, 0, node & 0xFFFFFFFFL, 8);
+        tmp[8] = '-';
+        appendHex(tmp, 9, time, 12);
+        tmp[21] = '-';
+        this.prefix = tmp;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String generate() {
+        long[] tmp = block.get();
+        if (tmp[0] == tmp[1]) {
+            tmp[0] = counter.getAndAdd(BLOCK_SIZE);
+            tmp[1] = tmp[0] + BLOCK_SIZE;
+        }
+        long value = tmp[0]++;
+        char[] result = new char[prefix.length + 16];
+        System.arraycopy(prefix, 0, result, 0, prefix.length);
+        appendHex(result, prefix.length, value, 16);
+        return new String(result);
+    }
+
+    /**
+     * Writes the value as the fixed width hex number.
+     *
+     * @param buffer the buffer.
+     * @param offset the offset.
+     * @param value the value.
+     * @param width the number of hex digits.
+     */
+    private static void appendHex(char[] buffer, int offset, long value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
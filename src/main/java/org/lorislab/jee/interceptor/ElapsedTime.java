@@ -0,0 +1,73 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+import org.lorislab.java.text.MessageArgument;
+
+/**
+ * The elapsed time in nanoseconds. The time is written in seconds with the
+ * configured precision.
+ *
+ * @author Andrej Petras
+ */
+public final class ElapsedTime implements MessageArgument {
+
+    /**
+     * The elapsed time in nanoseconds.
+     */
+    private final long nanos;
+
+    /**
+     * The default constructor.
+     *
+     * @param nanos the elapsed time in nanoseconds.
+     */
+    public ElapsedTime(long nanos) {
+        this.nanos = nanos;
+    }
+
+    /**
+     * Creates the elapsed time from the start time to now.
+     *
+     * @param startNanos the start time from the {@link System#nanoTime()}.
+     * @return the elapsed time.
+     */
+    public static ElapsedTime since(long startNanos) {
+        return new ElapsedTime(System.nanoTime() - startNanos);
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void appendTo(StringBuilder sb) {
+        InterceptorUtil.appendSeconds(sb, nanos);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(16);
+        appendTo(sb);
+        return sb.toString();
+    }
+}
@@ -15,6 +15,8 @@
  */
 package org.lorislab.jee.interceptor;
 
+import org.lorislab.java.text.MessageArgument;
+
 /**
  *
  * @author Andrej Petras
@@ -39,28 +41,83 @@ class InterceptorContext {
     /**
      * The list of method parameters.
      */
-    public final String parameters;
+    public Object parameters;
 
     /**
      * The result value.
      */
-    public String result;
+    public Object result;
 
     /**
      * The execution time.
      */
-    public String time;
+    public ElapsedTime time;
+
+    /**
+     * The start time in nanoseconds.
+     */
+    public final long startTime;
+
+    /**
+     * The thread CPU time at the start in nanoseconds or {@code -1}.
+     */
+    public final long startCpuTime;
+
+    /**
+     * The thread allocated bytes at the start or {@code -1}.
+     */
+    public final long startAllocatedBytes;
+
+    /**
+     * The thread CPU time of the invocation in nanoseconds or {@code -1}.
+     */
+    public long cpuTime = -1;
 
     /**
-     * The start time.
+     * The thread allocated bytes of the invocation or {@code -1}.
      */
-    public final long startTime = System.currentTimeMillis();
+    public long allocatedBytes = -1;
 
-    public InterceptorContext(String id, String principal, String method, String parameters) {
+    public InterceptorContext(String id, String principal, String method, Object parameters) {
         this.id = id;
         this.principal = principal;
         this.method = method;
         this.parameters = parameters;
+        if (ResourceUsage.ENABLED) {
+            this.startCpuTime = ResourceUsage.cpuTime();
+            this.startAllocatedBytes = ResourceUsage.allocatedBytes();
+        } else {
+            this.startCpuTime = -1;
+            this.startAllocatedBytes = -1;
+        }
+        this.startTime = System.nanoTime();
+    }
+
+    /**
+     * Creates the copy of the context for the asynchronous result. The thread
+     * CPU time and allocated bytes are not measured for the asynchronous
+     * result, which completes in another thread.
+     *
+     * @param context the interceptor context.
+     */
+    public InterceptorContext(InterceptorContext context) {
+        this.id = context.id;
+        this.principal = context.principal;
+        this.method = context.method;
+        this.parameters = context.parameters;
+        this.startTime = context.startTime;
+        this.startCpuTime = -1;
+        this.startAllocatedBytes = -1;
+    }
+
+    /**
+     * Measures the thread CPU time and allocated bytes of the invocation.
+     */
+    public void usage() {
+        if (startCpuTime >= 0 || startAllocatedBytes >= 0) {
+            cpuTime = ResourceUsage.delta(startCpuTime, ResourceUsage.cpuTime());
+            allocatedBytes = ResourceUsage.delta(startAllocatedBytes, ResourceUsage.allocatedBytes());
+        }
     }
 
     public Object[] getSuccessParams() {
@@ -70,5 +127,15 @@ class InterceptorContext {
     public Object[] getFailedParams() {
         return new Object[]{this.principal, this.method, parameters, this.result, time};
     }
+
+    /**
+     * Gets the thread CPU time and allocated bytes of the invocation for the
+     * log message.
+     *
+     * @return the message argument of the measured values.
+     */
+    public MessageArgument getUsage() {
+        return ResourceUsage.argument(cpuTime, allocatedBytes);
+    }
     
 }
@@ -20,6 +20,7 @@ import java.lang.reflect.Method;
 import java.security.Principal;
 import org.lorislab.jee.annotation.LoggerService;
 import org.lorislab.jee.Configuration;
+import org.lorislab.jee.cdi.util.JelConfig;
 
 /**
  *
@@ -29,6 +30,77 @@ public final class InterceptorUtil {
 
     private static final String TIME_FORMAT = "%.3f";
 
+    /**
+     * The number of fraction digits of the elapsed time in seconds.
+     */
+    private static final int TIME_PRECISION;
+
+    /**
+     * The divisor of the nanoseconds for the time precision.
+     */
+    private static final long TIME_DIVISOR;
+
+    /**
+     * The powers of ten.
+     */
+    private static final long[] POW10 = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L};
+
+    static {
+        int precision = JelConfig.getIntProperty("org.lorislab.jel.logger.time.precision", 3, JelConfig.loadConfig());
+        TIME_PRECISION = Math.max(0, Math.min(9, precision));
+        TIME_DIVISOR = POW10[9 - TIME_PRECISION];
+    }
+
+    /**
+     * The default logger service annotation.
+     */
+    private static final LoggerService DEFAULT_LOGGER_SERVICE = new LoggerService() {
+        @Override
+        public boolean log() {
+            return true;
+        }
+
+        @Override
+        public boolean stacktrace() {
+            return true;
+        }
+
+        @Override
+        public int sample() {
+            return -1;
+        }
+
+        @Override
+        public int rate() {
+            return -1;
+        }
+
+        @Override
+        public long threshold() {
+            return -1;
+        }
+
+        @Override
+        public int maxParam() {
+            return -1;
+        }
+
+        @Override
+        public int maxLine() {
+            return -1;
+        }
+
+        @Override
+        public int aggregate() {
+            return -1;
+        }
+
+        @Override
+        public Class<? extends Annotation> annotationType() {
+            return LoggerService.class;
+        }
+    };
+
     private InterceptorUtil() {
     }
 
@@ -47,22 +119,7 @@ public final class InterceptorUtil {
     }
 
     public static LoggerService getLoggerServiceAno(Class<?> clazz, Method method) {
-        LoggerService result = new LoggerService() {
-            @Override
-            public boolean log() {
-                return true;
-            }
-
-            @Override
-            public boolean stacktrace() {
-                return true;
-            }
-
-            @Override
-            public Class<? extends Annotation> annotationType() {
-                return LoggerService.class;
-            }
-        };
+        LoggerService result = DEFAULT_LOGGER_SERVICE;
         if (method != null && method.isAnnotationPresent(LoggerService.class)) {
             result = method.getAnnotation(LoggerService.class);
         } else if (clazz != null && clazz.isAnnotationPresent(LoggerService.class)) {
@@ -71,7 +128,59 @@ public final class InterceptorUtil {
         return result;
     }
 
+    /**
+     * Gets the service class name without the proxy suffix.
+     *
+     * @param clazz the target class.
+     * @return the corresponding class name.
+     */
+    public static String getClassName(Class<?> clazz) {
+        String result = null;
+        if (clazz != null) {
+            result = clazz.getName();
+            int index = result.indexOf('$');
+            if (index != -1) {
+                result = result.substring(0, index);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the interval in seconds.
+     *
+     * @param startTime the start time in milliseconds.
+     * @param endTime the end time in milliseconds.
+     * @return the interval in seconds.
+     * @deprecated use the {@link ElapsedTime} with the nanosecond time.
+     */
+    @Deprecated
     public static String intervalToString(long startTime, long endTime) {
         return String.format(TIME_FORMAT, (endTime - startTime) / 1000f);
     }
+
+    /**
+     * Appends the time in seconds with the fixed number of fraction digits
+     * ({@code org.lorislab.jel.logger.time.precision}, default 3) to the
+     * string builder.
+     *
+     * @param sb the string builder.
+     * @param nanos the time in nanoseconds.
+     */
+    public static void appendSeconds(StringBuilder sb, long nanos) {
+        long value = Math.max(0, nanos);
+        // round half up to the precision
+        long scaled = (value + TIME_DIVISOR / 2) / TIME_DIVISOR;
+        if (TIME_PRECISION == 0) {
+            sb.append(scaled);
+            return;
+        }
+        long unit = POW10[TIME_PRECISION];
+        sb.append(scaled / unit).append('.');
+        long fraction = scaled % unit;
+        for (int i = TIME_PRECISION - 1; i > 0 && fraction < POW10[i]; i--) {
+            sb.append('0');
+        }
+        sb.append(fraction);
+    }
 }
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.lorislab.java.text.JsonWriter;
+import org.lorislab.jee.Configuration;
+import org.lorislab.jee.cdi.util.JelConfig;
+import org.lorislab.jee.logger.JsonMessage;
+import org.lorislab.jee.logger.LogWriter;
+import org.lorislab.jee.metrics.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The aggregated invocations of the service method. The aggregated method
+ * does not log the started and succeed message of each invocation, instead
+ * the background task writes one summary message per interval with the
+ * number of invocations, the number of failed invocations, the minimal, mean
+ * and maximal time and the percentiles. The failed and the slow invocations
+ * are still logged.
+ * <p>
+ * The method is aggregated always ({@code rate = 0}) or when the number of
+ * invocations per second in the last interval is over the rate.
+ *
+ * @author Andrej Petras
+ */
+public final class InvocationAggregate {
+
+    /**
+     * The logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(InvocationAggregate.class);
+
+    /**
+     * The aggregation interval in seconds.
+     */
+    public static final long INTERVAL;
+
+    /**
+     * The aggregated methods by the service class name and method. The proxy
+     * classes of the same bean share the aggregated method.
+     */
+    private static final ConcurrentMap<String, InvocationAggregate> AGGREGATES = new ConcurrentHashMap<>();
+
+    private static final String FIELD_TYPE = JsonWriter.name("type");
+    private static final String FIELD_CLASS = JsonWriter.name("class");
+    private static final String FIELD_METHOD = JsonWriter.name("method");
+    private static final String FIELD_INTERVAL = JsonWriter.name("intervalNanos");
+    private static final String FIELD_COUNT = JsonWriter.name("count");
+    private static final String FIELD_FAILED = JsonWriter.name("failed");
+    private static final String FIELD_MIN = JsonWriter.name("minNanos");
+    private static final String FIELD_MEAN = JsonWriter.name("meanNanos");
+    private static final String FIELD_MAX = JsonWriter.name("maxNanos");
+    private static final String FIELD_P50 = JsonWriter.name("p50Nanos");
+    private static final String FIELD_P90 = JsonWriter.name("p90Nanos");
+    private static final String FIELD_P99 = JsonWriter.name("p99Nanos");
+
+    /**
+     * The summary task executor.
+     */
+    private static ScheduledExecutorService executor;
+
+    static {
+        Properties prop = JelConfig.loadConfig();
+        INTERVAL = Math.max(1, JelConfig.getLongProperty("org.lorislab.jel.logger.aggregate.interval", 60, prop));
+    }
+
+    /**
+     * The service logger.
+     */
+    private final Logger logger;
+
+    /**
+     * The service class name.
+     */
+    private final String className;
+
+    /**
+     * The service method.
+     */
+    private final String method;
+
+    /**
+     * The number of invocations per second over which the method is
+     * aggregated, {@code 0} to aggregate always.
+     */
+    private final long rate;
+
+    /**
+     * The current interval.
+     */
+    private final AtomicReference<Interval> current = new AtomicReference<>(new Interval(System.nanoTime()));
+
+    /**
+     * The active flag.
+     */
+    private volatile boolean active;
+
+    /**
+     * The default constructor.
+     *
+     * @param logger the service logger.
+     * @param className the service class name.
+     * @param method the service method.
+     * @param rate the rate or {@code 0} to aggregate always.
+     */
+    private InvocationAggregate(Logger logger, String className, String method, long rate) {
+        this.logger = logger;
+        this.className = className;
+        this.method = method;
+        this.rate = rate;
+        this.active = rate == 0;
+    }
+
+    /**
+     * Gets or creates and registers the aggregated method.
+     *
+     * @param logger the service logger.
+     * @param className the service class name.
+     * @param method the service method.
+     * @param rate the number of invocations per second over which the method
+     * is aggregated, {@code 0} to aggregate always.
+     * @return the aggregated method.
+     */
+    static InvocationAggregate create(Logger logger, String className, String method, long rate) {
+        InvocationAggregate result = AGGREGATES.computeIfAbsent(className + ':' + method, key -> new InvocationAggregate(logger, className, method, rate));
+        start();
+        return result;
+    }
+
+    /**
+     * Starts the summary task.
+     */
+    private static synchronized void start() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "jel-log-aggregate");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleAtFixedRate(InvocationAggregate::report, INTERVAL, INTERVAL, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Stops the summary task, writes the summary of the current interval and
+     * removes the aggregated methods.
+     */
+    public static synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+            report();
+        }
+        AGGREGATES.clear();
+    }
+
+    /**
+     * Writes the summary of all aggregated methods.
+     */
+    private static void report() {
+        for (InvocationAggregate aggregate : AGGREGATES.values()) {
+            try {
+                aggregate.summary(System.nanoTime());
+            } catch (Exception ex) {
+                LOGGER.error("Error writing the summary of {}:{}", aggregate.className, aggregate.method, ex);
+            }
+        }
+    }
+
+    /**
+     * Checks if the invocations are aggregated.
+     *
+     * @return {@code true} if the started and succeed messages are not
+     * logged.
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Records the invocation.
+     *
+     * @param nanos the invocation time in nanoseconds.
+     * @param failed the failed invocation flag.
+     */
+    public void record(long nanos, boolean failed) {
+        current.get().record(nanos, failed);
+    }
+
+    /**
+     * Writes the summary of the interval and starts the new interval.
+     *
+     * @param now the current time in nanoseconds.
+     */
+    void summary(long now) {
+        Interval interval = current.getAndSet(new Interval(now));
+        long duration = now - interval.start;
+        long count = interval.count.sum();
+        if (rate > 0) {
+            active = count * TimeUnit.SECONDS.toNanos(1) / Math.max(1, duration) > rate;
+        }
+        if (count == 0 || !logger.isInfoEnabled()) {
+            return;
+        }
+        long[] snapshot = interval.histogram.snapshot();
+        long mean = interval.total.sum() / count;
+        if (Configuration.JSON_FORMAT) {
+            LogWriter.info(logger, new JsonWriter(new StringBuilder(256)).begin()
+                    .field(FIELD_TYPE, JsonMessage.AGGREGATE)
+                    .field(FIELD_CLASS, className)
+                    .field(FIELD_METHOD, method)
+                    .field(FIELD_INTERVAL, duration)
+                    .field(FIELD_COUNT, count)
+                    .field(FIELD_FAILED, interval.failed.sum())
+                    .field(FIELD_MIN, interval.min.get())
+                    .field(FIELD_MEAN, mean)
+                    .field(FIELD_MAX, interval.max.get())
+                    .field(FIELD_P50, LatencyHistogram.percentile(snapshot, 50))
+                    .field(FIELD_P90, LatencyHistogram.percentile(snapshot, 90))
+                    .field(FIELD_P99, LatencyHistogram.percentile(snapshot, 99))
+                    .end().toString());
+        } else {
+            LogWriter.info(logger, Configuration.msgAggregate(className, method, new ElapsedTime(duration), count, interval.failed.sum(),
+                    new ElapsedTime(interval.min.get()), new ElapsedTime(mean), new ElapsedTime(interval.max.get()),
+                    new ElapsedTime(LatencyHistogram.percentile(snapshot, 50)), new ElapsedTime(LatencyHistogram.percentile(snapshot, 90)),
+                    new ElapsedTime(LatencyHistogram.percentile(snapshot, 99))));
+        }
+    }
+
+    /**
+     * The lock-free counters of one interval.
+     */
+    private static final class Interval {
+
+        /**
+         * The start time in nanoseconds.
+         */
+        private final long start;
+
+        /**
+         * The latency histogram.
+         */
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        /**
+         * The invocations counter.
+         */
+        private final LongAdder count = new LongAdder();
+
+        /**
+         * The failed invocations counter.
+         */
+        private final LongAdder failed = new LongAdder();
+
+        /**
+         * The total time in nanoseconds.
+         */
+        private final LongAdder total = new LongAdder();
+
+        /**
+         * The minimal time in nanoseconds.
+         */
+        private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+
+        /**
+         * The maximal time in nanoseconds.
+         */
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        /**
+         * The default constructor.
+         *
+         * @param start the start time in nanoseconds.
+         */
+        Interval(long start) {
+            this.start = start;
+        }
+
+        /**
+         * Records the invocation.
+         *
+         * @param nanos the invocation time in nanoseconds.
+         * @param error the failed invocation flag.
+         */
+        void record(long nanos, boolean error) {
+            histogram.record(nanos);
+            total.add(nanos);
+            min.accumulate(nanos);
+            max.accumulate(nanos);
+            count.increment();
+            if (error) {
+                failed.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,400 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.Properties;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.lorislab.jee.annotation.LoggerService;
+import org.lorislab.jee.cdi.util.JelConfig;
+import org.lorislab.jee.metrics.MethodMetrics;
+import org.lorislab.jee.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The immutable invocation descriptor of the service method. The descriptor is
+ * created once for the target class and method and contains all the
+ * information the interceptor needs for the logging.
+ *
+ * @author Andrej Petras
+ */
+public final class InvocationDescriptor {
+
+    /**
+     * The descriptor cache per target class. The target class is the service
+     * class of the deployment, so the descriptors stored in the class do not
+     * pin the class loader after undeploy.
+     */
+    private static final ClassValue<ConcurrentMap<Method, InvocationDescriptor>> CACHE = new ClassValue<ConcurrentMap<Method, InvocationDescriptor>>() {
+        @Override
+        protected ConcurrentMap<Method, InvocationDescriptor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * The logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(InvocationDescriptor.class);
+
+    /**
+     * The configuration.
+     */
+    private static final Properties CONFIG = JelConfig.loadConfig();
+
+    /**
+     * The effective logger service annotation.
+     */
+    private final LoggerService annotation;
+
+    /**
+     * The method annotation flag. The method annotation has the precedence
+     * over the class configuration.
+     */
+    private final boolean methodAnnotation;
+
+    /**
+     * The service class name.
+     */
+    private final String className;
+
+    /**
+     * The service method name.
+     */
+    private final String methodName;
+
+    /**
+     * The service logger.
+     */
+    private final Logger logger;
+
+    /**
+     * The excluded parameters. The item contains the parameter name for the
+     * excluded parameter or {@code null} for the logged parameter.
+     */
+    private final String[] excludes;
+
+    /**
+     * The void return type flag.
+     */
+    private final boolean voidResult;
+
+    /**
+     * The asynchronous result flag.
+     */
+    private final boolean async;
+
+    /**
+     * The method metrics.
+     */
+    private final MethodMetrics metrics;
+
+    /**
+     * The sampling policy.
+     */
+    private final SamplingPolicy sampling;
+
+    /**
+     * The slow invocation time in nanoseconds.
+     */
+    private final long slow;
+
+    /**
+     * The threshold mode flag.
+     */
+    private final boolean threshold;
+
+    /**
+     * The maximal number of characters of the parameter or result.
+     */
+    private final int maxParam;
+
+    /**
+     * The maximal number of characters of all parameters.
+     */
+    private final int maxLine;
+
+    /**
+     * The aggregated invocations.
+     */
+    private final InvocationAggregate aggregate;
+
+    /**
+     * The default constructor.
+     *
+     * @param clazz the target class.
+     * @param method the service method.
+     */
+    private InvocationDescriptor(Class<?> clazz, Method method) {
+        this.annotation = InterceptorUtil.getLoggerServiceAno(clazz, method);
+        this.methodAnnotation = method.isAnnotationPresent(LoggerService.class);
+        this.className = InterceptorUtil.getClassName(clazz);
+        this.methodName = method.getName();
+        this.logger = LoggerFactory.getLogger(className);
+        this.voidResult = method.getReturnType() == Void.TYPE;
+        this.async = CompletionStage.class.isAssignableFrom(method.getReturnType()) || Future.class.isAssignableFrom(method.getReturnType());
+
+        String[] tmp = null;
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].isAnnotationPresent(LoggerService.Exclude.class)) {
+                if (tmp == null) {
+                    tmp = new String[parameters.length];
+                }
+                tmp[i] = parameters[i].getName();
+            }
+        }
+        this.excludes = tmp;
+
+        MethodMetrics tmpMetrics = null;
+        if (annotation.log()) {
+            tmpMetrics = MetricsRegistry.create(className, getSignature(method));
+        }
+        this.metrics = tmpMetrics;
+
+        int sample = (int) getProperty("org.lorislab.jel.logger.sample", annotation.sample(), 1);
+        int rate = (int) getProperty("org.lorislab.jel.logger.rate", annotation.rate(), 0);
+        this.sampling = SamplingPolicy.create(sample, rate);
+        long tmpThreshold = getProperty("org.lorislab.jel.logger.threshold", annotation.threshold(), 0);
+        this.threshold = tmpThreshold > 0;
+        if (threshold) {
+            this.slow = TimeUnit.MILLISECONDS.toNanos(tmpThreshold);
+        } else {
+            this.slow = TimeUnit.MILLISECONDS.toNanos(getProperty("org.lorislab.jel.logger.slow", -1, 0));
+        }
+        this.maxParam = (int) getProperty("org.lorislab.jel.logger.max.param", annotation.maxParam(), 0);
+        this.maxLine = (int) getProperty("org.lorislab.jel.logger.max.line", annotation.maxLine(), 0);
+        long tmpAggregate = getProperty("org.lorislab.jel.logger.aggregate", annotation.aggregate(), -1);
+        if (annotation.log() && tmpAggregate >= 0) {
+            this.aggregate = InvocationAggregate.create(logger, className, methodName, tmpAggregate);
+        } else {
+            this.aggregate = null;
+        }
+    }
+
+    /**
+     * Gets the configuration value for the service method. The lookup order
+     * is {@code <key>.<class>.<method>}, the method annotation value,
+     * {@code <key>.<class>}, the class annotation value and {@code <key>}.
+     * The invalid configuration value is logged and the default value is
+     * used.
+     *
+     * @param key the configuration key.
+     * @param annotationValue the annotation value or {@code -1} if not set.
+     * @param defaultValue the default value.
+     * @return the configuration value.
+     */
+    private long getProperty(String key, long annotationValue, long defaultValue) {
+        String name = key + '.' + className + '.' + methodName;
+        String value = CONFIG.getProperty(name);
+        if (value == null && methodAnnotation && annotationValue >= 0) {
+            return annotationValue;
+        }
+        if (value == null) {
+            name = key + '.' + className;
+            value = CONFIG.getProperty(name);
+        }
+        if (value == null) {
+            if (annotationValue >= 0) {
+                return annotationValue;
+            }
+            name = key;
+            value = CONFIG.getProperty(name);
+        }
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException ex) {
+            LOGGER.warn("Invalid configuration value {}={}, the default value {} is used.", name, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Gets the method signature with the simple names of the parameter types.
+     *
+     * @param method the method.
+     * @return the method signature.
+     */
+    private static String getSignature(Method method) {
+        StringBuilder sb = new StringBuilder(method.getName()).append('(');
+        Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(types[i].getSimpleName());
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * Gets the invocation descriptor for the target class and method.
+     *
+     * @param clazz the target class.
+     * @param method the service method.
+     * @return the corresponding invocation descriptor.
+     */
+    public static InvocationDescriptor get(Class<?> clazz, Method method) {
+        ConcurrentMap<Method, InvocationDescriptor> methods = CACHE.get(clazz);
+        InvocationDescriptor result = methods.get(method);
+        if (result == null) {
+            result = new InvocationDescriptor(clazz, method);
+            InvocationDescriptor tmp = methods.putIfAbsent(method, result);
+            if (tmp != null) {
+                result = tmp;
+            }
+        }
+        return result;
+    }
+
+    public LoggerService getAnnotation() {
+        return annotation;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public Logger getLogger() {
+        return logger;
+    }
+
+    /**
+     * Gets the excluded parameters.
+     *
+     * @return the excluded parameter names or {@code null} if all parameters
+     * are logged.
+     */
+    public String[] getExcludes() {
+        return excludes;
+    }
+
+    public boolean isVoidResult() {
+        return voidResult;
+    }
+
+    /**
+     * Checks if the method returns the {@link CompletionStage} or the
+     * {@link Future}. The asynchronous result is logged when it completes.
+     *
+     * @return {@code true} for the asynchronous result.
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Gets the sampling policy.
+     *
+     * @return the sampling policy or {@code null} if all invocations are
+     * logged.
+     */
+    public SamplingPolicy getSampling() {
+        return sampling;
+    }
+
+    /**
+     * Gets the slow invocation time. The slow invocations are always logged.
+     * In the threshold mode this is the threshold time.
+     *
+     * @return the slow invocation time in nanoseconds or {@code 0} if not
+     * set.
+     */
+    public long getSlow() {
+        return slow;
+    }
+
+    /**
+     * Checks if the threshold mode is active. In the threshold mode only the
+     * slow and the failed invocations are logged, the other invocations are
+     * counted only if the metrics are enabled.
+     *
+     * @return {@code true} if the threshold mode is active.
+     */
+    public boolean isThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Checks if the invocation is logged.
+     *
+     * @return {@code true} if the invocation is logged.
+     */
+    public boolean isSampled() {
+        return !threshold && (aggregate == null || !aggregate.isActive()) && (sampling == null || sampling.isSampled());
+    }
+
+    /**
+     * Checks if the invocation time is over the slow invocation time.
+     *
+     * @param nanos the invocation time in nanoseconds.
+     * @return {@code true} for the slow invocation.
+     */
+    public boolean isSlow(long nanos) {
+        return slow > 0 && nanos >= slow;
+    }
+
+    /**
+     * Gets the maximal number of characters of the parameter or result.
+     *
+     * @return the maximal number of characters or {@code 0} for no limit.
+     */
+    public int getMaxParam() {
+        return maxParam;
+    }
+
+    /**
+     * Gets the maximal number of characters of all parameters.
+     *
+     * @return the maximal number of characters or {@code 0} for no limit.
+     */
+    public int getMaxLine() {
+        return maxLine;
+    }
+
+    /**
+     * Gets the aggregated invocations.
+     *
+     * @return the aggregated invocations or {@code null} if the aggregation is
+     * disabled.
+     */
+    public InvocationAggregate getAggregate() {
+        return aggregate;
+    }
+
+    /**
+     * Gets the method metrics.
+     *
+     * @return the method metrics or {@code null} if the metrics are disabled.
+     */
+    public MethodMetrics getMetrics() {
+        return metrics;
+    }
+
+}
@@ -60,6 +60,16 @@ public class RequestData implements Serializable {
      */
     private long executionTime;
 
+    /**
+     * The thread CPU time of the service calls in nanoseconds or {@code -1}.
+     */
+    private long cpuTime = -1;
+
+    /**
+     * The thread allocated bytes of the service calls or {@code -1}.
+     */
+    private long allocatedBytes = -1;
+
     /**
      * The error message.
      */
@@ -75,12 +85,20 @@ public class RequestData implements Serializable {
      */
     private long startTime;
 
+    /**
+     * The start time in nanoseconds.
+     */
+    private transient long startNanos;
+
     /**
      * The remote flag.
      */
     private boolean remote;
 
-    private Stack<String> trace = new Stack<>();
+    /**
+     * The call tree.
+     */
+    private CallTree trace = new CallTree();
 
     public String getId() {
         return id;
@@ -138,6 +156,38 @@ public class RequestData implements Serializable {
         this.executionTime = executionTime;
     }
 
+    public long getCpuTime() {
+        return cpuTime;
+    }
+
+    public void setCpuTime(long cpuTime) {
+        this.cpuTime = cpuTime;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public void setAllocatedBytes(long allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * Adds the thread CPU time and allocated bytes of the outermost service
+     * call in the thread to the request.
+     *
+     * @param cpu the CPU time in nanoseconds or {@code -1}.
+     * @param allocated the allocated bytes or {@code -1}.
+     */
+    public void addUsage(long cpu, long allocated) {
+        if (cpu >= 0) {
+            cpuTime = Math.max(0, cpuTime) + cpu;
+        }
+        if (allocated >= 0) {
+            allocatedBytes = Math.max(0, allocatedBytes) + allocated;
+        }
+    }
+
     public String getError() {
         return error;
     }
@@ -162,6 +212,15 @@ public class RequestData implements Serializable {
         this.startTime = startTime;
     }
 
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public void setStartNanos(long startNanos) {
+        this.startNanos = startNanos;
+        trace.setStartNanos(startNanos);
+    }
+
     public boolean isRemote() {
         return remote;
     }
@@ -174,14 +233,80 @@ public class RequestData implements Serializable {
         return serialVersionUID;
     }
 
-    public Stack<String> getTrace() {
+    /**
+     * Gets the call tree of the request.
+     *
+     * @return the call tree.
+     */
+    public CallTree getCallTree() {
         return trace;
     }
 
-    public void setTrace(Stack<String> trace) {
+    /**
+     * Sets the call tree of the request.
+     *
+     * @param trace the call tree.
+     */
+    public void setCallTree(CallTree trace) {
         this.trace = trace;
     }
 
+    /**
+     * Gets the class names of the open service calls.
+     *
+     * @return the copy of the open service calls, the changes of the returned
+     * stack are not reflected in the request data.
+     * @deprecated use the {@link #getCallTree()}.
+     */
+    @Deprecated
+    public Stack<String> getTrace() {
+        Stack<String> result = new Stack<>();
+        for (int i = 0; i < trace.getDepth(); i++) {
+            result.push(trace.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Sets the open service calls. The new call tree with the items as the
+     * open calls is created.
+     *
+     * @param trace the class names of the open service calls.
+     * @deprecated use the {@link #setCallTree(CallTree)}.
+     */
+    @Deprecated
+    public void setTrace(Stack<String> trace) {
+        CallTree tmp = new CallTree();
+        tmp.setStartNanos(startNanos);
+        if (trace != null) {
+            long now = System.nanoTime();
+            for (String item : trace) {
+                tmp.enter(item, null, now);
+            }
+        }
+        this.trace = tmp;
+    }
+
+    /**
+     * Creates the copy of the request data for the other thread. The copy
+     * contains the request identity and the start time with the empty call
+     * tree.
+     *
+     * @return the copy of the request data.
+     */
+    public RequestData fork() {
+        RequestData result = new RequestData();
+        result.setId(id);
+        result.setPrincipal(principal);
+        result.setClient(client);
+        result.setClientHost(clientHost);
+        result.setClientPrincipal(clientPrincipal);
+        result.setStartTime(startTime);
+        result.setStartNanos(startNanos);
+        result.setRemote(remote);
+        return result;
+    }
+
     public boolean isTrace() {
         return !trace.isEmpty();
     }
@@ -191,10 +316,31 @@ public class RequestData implements Serializable {
     }
 
     public String popTrace() {
-        return trace.pop();
+        return trace.exit(System.nanoTime());
     }
 
     public void addTrace(String item) {
-        trace.push(item);
+        trace.enter(item, null, System.nanoTime());
+    }
+
+    /**
+     * Starts the service call in the call tree.
+     *
+     * @param className the service class name.
+     * @param method the service method name.
+     * @param startNanos the start time in nanoseconds.
+     */
+    public void addTrace(String className, String method, long startNanos) {
+        trace.enter(className, method, startNanos);
+    }
+
+    /**
+     * Finishes the current service call in the call tree.
+     *
+     * @param endNanos the end time in nanoseconds.
+     * @return the class name of the finished call.
+     */
+    public String popTrace(long endNanos) {
+        return trace.exit(endNanos);
     }
 }
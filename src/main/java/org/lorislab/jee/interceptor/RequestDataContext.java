@@ -0,0 +1,332 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * The request data context propagation. The wrapped task runs with the copy
+ * of the request data of the thread which created the task, so the request
+ * id and the principal are kept for the asynchronous calls. The copy is
+ * created when the task is wrapped, the wrapped task must not run in more
+ * threads at the same time.
+ *
+ * <pre>
+ * CompletableFuture.supplyAsync(RequestDataContext.supplier(supplier), executor);
+ * CompletableFuture.supplyAsync(supplier, RequestDataContext.executor(executor));
+ * ExecutorService service = RequestDataContext.executorService(managedExecutorService);
+ * </pre>
+ *
+ * @author Andrej Petras
+ */
+public final class RequestDataContext {
+
+    /**
+     * The default constructor.
+     */
+    private RequestDataContext() {
+        // empty constructor
+    }
+
+    /**
+     * Wraps the runnable with the current request data.
+     *
+     * @param task the task.
+     * @return the wrapped task or the task if there is no request data.
+     */
+    public static Runnable runnable(Runnable task) {
+        RequestData data = RequestDataThreadHolder.get();
+        if (data == null) {
+            return task;
+        }
+        RequestData snapshot = data.fork();
+        return () -> {
+            RequestData previous = attach(snapshot);
+            try {
+                task.run();
+            } finally {
+                RequestDataThreadHolder.restore(previous);
+            }
+        };
+    }
+
+    /**
+     * Wraps the callable with the current request data.
+     *
+     * @param <V> the result type.
+     * @param task the task.
+     * @return the wrapped task or the task if there is no request data.
+     */
+    public static <V> Callable<V> callable(Callable<V> task) {
+        RequestData data = RequestDataThreadHolder.get();
+        if (data == null) {
+            return task;
+        }
+        RequestData snapshot = data.fork();
+        return () -> {
+            RequestData previous = attach(snapshot);
+            try {
+                return task.call();
+            } finally {
+                RequestDataThreadHolder.restore(previous);
+            }
+        };
+    }
+
+    /**
+     * Wraps the supplier with the current request data.
+     *
+     * @param <T> the result type.
+     * @param task the task.
+     * @return the wrapped task or the task if there is no request data.
+     */
+    public static <T> Supplier<T> supplier(Supplier<T> task) {
+        RequestData data = RequestDataThreadHolder.get();
+        if (data == null) {
+            return task;
+        }
+        RequestData snapshot = data.fork();
+        return () -> {
+            RequestData previous = attach(snapshot);
+            try {
+                return task.get();
+            } finally {
+                RequestDataThreadHolder.restore(previous);
+            }
+        };
+    }
+
+    /**
+     * Wraps the executor. Each submitted task runs with the request data of
+     * the submitting thread.
+     *
+     * @param executor the executor.
+     * @return the wrapped executor.
+     */
+    public static Executor executor(Executor executor) {
+        if (executor instanceof ContextExecutor) {
+            return executor;
+        }
+        return new ContextExecutor(executor);
+    }
+
+    /**
+     * Wraps the executor service, for example the
+     * {@code ManagedExecutorService}. Each submitted task, including the
+     * {@code invokeAll} and {@code invokeAny} tasks, runs with the request data
+     * of the submitting thread.
+     *
+     * @param executor the executor service.
+     * @return the wrapped executor service.
+     */
+    public static ExecutorService executorService(ExecutorService executor) {
+        if (executor instanceof ContextExecutorService) {
+            return executor;
+        }
+        return new ContextExecutorService(executor);
+    }
+
+    /**
+     * Wraps the callables with the current request data.
+     *
+     * @param <T> the result type.
+     * @param tasks the tasks.
+     * @return the wrapped tasks.
+     */
+    private static <T> List<Callable<T>> callables(Collection<? extends Callable<T>> tasks) {
+        List<Callable<T>> result = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            result.add(callable(task));
+        }
+        return result;
+    }
+
+    /**
+     * Sets the request data snapshot to the current thread. The snapshot is
+     * already the copy of the request data created by the
+     * {@link RequestData#fork()}.
+     *
+     * @param snapshot the request data snapshot.
+     * @return the previous request data of the thread.
+     */
+    static RequestData attach(RequestData snapshot) {
+        RequestData previous = RequestDataThreadHolder.get();
+        RequestDataThreadHolder.set(snapshot);
+        return previous;
+    }
+
+    /**
+     * The executor which propagates the request data.
+     */
+    private static final class ContextExecutor implements Executor {
+
+        /**
+         * The executor.
+         */
+        private final Executor executor;
+
+        /**
+         * The default constructor.
+         *
+         * @param executor the executor.
+         */
+        ContextExecutor(Executor executor) {
+            this.executor = executor;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void execute(Runnable command) {
+            executor.execute(runnable(command));
+        }
+    }
+
+    /**
+     * The executor service which propagates the request data.
+     */
+    private static final class ContextExecutorService implements ExecutorService {
+
+        /**
+         * The executor service.
+         */
+        private final ExecutorService executor;
+
+        /**
+         * The default constructor.
+         *
+         * @param executor the executor service.
+         */
+        ContextExecutorService(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void execute(Runnable command) {
+            executor.execute(runnable(command));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public <T> Future<T> submit(Callable<T> task) {
+            return executor.submit(callable(task));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public <T> Future<T> submit(Runnable task, T result) {
+            return executor.submit(runnable(task), result);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Future<?> submit(Runnable task) {
+            return executor.submit(runnable(task));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+            return executor.invokeAll(callables(tasks));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException {
+            return executor.invokeAll(callables(tasks), timeout, unit);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+            return executor.invokeAny(callables(tasks));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return executor.invokeAny(callables(tasks), timeout, unit);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void shutdown() {
+            executor.shutdown();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public List<Runnable> shutdownNow() {
+            return executor.shutdownNow();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isShutdown() {
+            return executor.isShutdown();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isTerminated() {
+            return executor.isTerminated();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return executor.awaitTermination(timeout, unit);
+        }
+    }
+}
@@ -15,8 +15,12 @@
  */
 package org.lorislab.jee.interceptor;
 
-import java.util.UUID;
 import org.lorislab.jee.Configuration;
+import org.lorislab.jee.cdi.util.JelConfig;
+import org.lorislab.jee.logger.LogWriter;
+import org.lorislab.jee.logger.RequestLogBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
 /**
@@ -28,10 +32,52 @@ public class RequestDataThreadHolder {
     /**
      * The logger request ID. %X{JEL_LOG_ID}
      */
-    private static String LOG_ID = "JEL_LOG_ID";
+    public static final String LOG_ID = "JEL_LOG_ID";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestDataThreadHolder.class);
+
+    /**
+     * The request id generator.
+     */
+    private static final RequestIdGenerator GENERATOR = createGenerator(JelConfig.getProperty("org.lorislab.jel.request.id", "default"));
 
     private static ThreadLocal<RequestData> requestDataThreadLocal = new ThreadLocal<>();
 
+    /**
+     * Creates the request id generator.
+     *
+     * @param name the generator name or the class name.
+     * @return the request id generator.
+     */
+    private static RequestIdGenerator createGenerator(String name) {
+        String tmp = name.trim();
+        if ("default".equals(tmp)) {
+            return new DefaultRequestIdGenerator();
+        }
+        if ("uuid".equals(tmp)) {
+            return new UUIDRequestIdGenerator();
+        }
+        try {
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            if (loader == null) {
+                loader = RequestIdGenerator.class.getClassLoader();
+            }
+            return (RequestIdGenerator) Class.forName(tmp, true, loader).getConstructor().newInstance();
+        } catch (Exception ex) {
+            LOGGER.error("Error creating the request id generator {}, the default generator is used.", tmp, ex);
+            return new DefaultRequestIdGenerator();
+        }
+    }
+
+    /**
+     * Generates the new request id.
+     *
+     * @return the new request id.
+     */
+    public static String generateId() {
+        return GENERATOR.generate();
+    }
+
     public static RequestData get() {
         return requestDataThreadLocal.get();
     }
@@ -46,19 +92,57 @@ public class RequestDataThreadHolder {
     }
 
     public static void clear() {
+        RequestData data = requestDataThreadLocal.get();
+        if (CallTree.BUDGET > 0) {
+            logCallTree(data);
+        }
+        if (RequestLogBuffer.ENABLED && data != null) {
+            RequestLogBuffer.end(System.nanoTime() - data.getStartNanos(), data.getId());
+        }
         requestDataThreadLocal.remove();
         MDC.remove(LOG_ID);
     }
     
+    /**
+     * Restores the previous request data of the thread without logging the
+     * call tree.
+     *
+     * @param data the previous request data or {@code null}.
+     */
+    static void restore(RequestData data) {
+        if (data == null) {
+            requestDataThreadLocal.remove();
+            MDC.remove(LOG_ID);
+        } else {
+            set(data);
+        }
+    }
+
+    /**
+     * Logs the call tree of the request over the latency budget.
+     *
+     * @param data the request data.
+     */
+    private static void logCallTree(RequestData data) {
+        if (data == null || data.getCallTree().size() == 0) {
+            return;
+        }
+        long time = System.nanoTime() - data.getStartNanos();
+        if (time > CallTree.BUDGET) {
+            LogWriter.warn(LOGGER, Configuration.msgCallTree(data.getId(), new ElapsedTime(time), new ElapsedTime(CallTree.BUDGET), data.getCallTree()));
+        }
+    }
+
     public static RequestData createAndSet(String id, String principal, String clientPrincipal, String client, String clientHost) {
         if (id == null) {
-            id = UUID.randomUUID().toString();
+            id = GENERATOR.generate();
         }
         if (principal == null) {
             principal =  Configuration.PATTERN_NO_USER;
         }
         RequestData result = create(id, principal, clientPrincipal, client, clientHost);
         set(result);
+        RequestLogBuffer.begin();
         return result;
     }
 
@@ -70,6 +154,7 @@ public class RequestDataThreadHolder {
         result.setClientPrincipal(clientPrincipal);
         result.setClientHost(clientHost);
         result.setStartTime(System.currentTimeMillis());
+        result.setStartNanos(System.nanoTime());
         return result;
     }
 }
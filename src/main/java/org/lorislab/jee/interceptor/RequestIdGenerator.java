@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+/**
+ * The request id generator. The generator is selected by the
+ * {@code org.lorislab.jel.request.id} property: {@code default} for the
+ * {@link DefaultRequestIdGenerator}, {@code uuid} for the
+ * {@link UUIDRequestIdGenerator} or the class name of the implementation with
+ * the public default constructor.
+ *
+ * @author Andrej Petras
+ */
+public interface RequestIdGenerator {
+
+    /**
+     * Generates the new request id. The method is called concurrently.
+     *
+     * @return the new request id.
+     */
+    String generate();
+}
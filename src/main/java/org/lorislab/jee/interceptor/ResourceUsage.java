@@ -0,0 +1,211 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import org.lorislab.java.text.MessageArgument;
+import org.lorislab.jee.cdi.util.JelConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The thread CPU time and allocated bytes of the service invocation. The
+ * measurement is enabled by the configuration {@code org.lorislab.jel.logger.cpu}
+ * and uses the {@link ThreadMXBean} of the current thread. If disabled the
+ * {@link ThreadMXBean} is not called.
+ *
+ * @author Andrej Petras
+ */
+public final class ResourceUsage {
+
+    /**
+     * The logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceUsage.class);
+
+    /**
+     * The enabled flag.
+     */
+    public static final boolean ENABLED;
+
+    /**
+     * The message argument without the measured values.
+     */
+    private static final MessageArgument NONE = new Argument(-1, -1);
+
+    /**
+     * The thread management bean.
+     */
+    private static final ThreadMXBean THREAD;
+
+    /**
+     * The thread management bean with the allocated bytes or {@code null} if
+     * not supported.
+     */
+    private static final com.sun.management.ThreadMXBean ALLOCATION;
+
+    static {
+        boolean enabled = JelConfig.getBooleanProperty("org.lorislab.jel.logger.cpu", false);
+        ThreadMXBean thread = null;
+        com.sun.management.ThreadMXBean allocation = null;
+        if (enabled) {
+            try {
+                thread = ManagementFactory.getThreadMXBean();
+                if (thread.isCurrentThreadCpuTimeSupported()) {
+                    if (!thread.isThreadCpuTimeEnabled()) {
+                        thread.setThreadCpuTimeEnabled(true);
+                    }
+                } else {
+                    LOGGER.warn("The thread CPU time is not supported by the JVM.");
+                }
+                if (thread instanceof com.sun.management.ThreadMXBean) {
+                    allocation = (com.sun.management.ThreadMXBean) thread;
+                    if (allocation.isThreadAllocatedMemorySupported()) {
+                        if (!allocation.isThreadAllocatedMemoryEnabled()) {
+                            allocation.setThreadAllocatedMemoryEnabled(true);
+                        }
+                    } else {
+                        allocation = null;
+                    }
+                }
+                if (allocation == null) {
+                    LOGGER.warn("The thread allocated bytes are not supported by the JVM.");
+                }
+            } catch (RuntimeException ex) {
+                LOGGER.error("Error enabling the thread CPU time measurement.", ex);
+                enabled = false;
+                thread = null;
+                allocation = null;
+            }
+        }
+        ENABLED = enabled;
+        THREAD = thread;
+        ALLOCATION = allocation;
+    }
+
+    /**
+     * The default constructor.
+     */
+    private ResourceUsage() {
+    }
+
+    /**
+     * Gets the CPU time of the current thread.
+     *
+     * @return the CPU time in nanoseconds or {@code -1} if not available.
+     */
+    public static long cpuTime() {
+        if (THREAD == null) {
+            return -1;
+        }
+        return THREAD.getCurrentThreadCpuTime();
+    }
+
+    /**
+     * Gets the allocated bytes of the current thread.
+     *
+     * @return the allocated bytes or {@code -1} if not available.
+     */
+    public static long allocatedBytes() {
+        if (ALLOCATION == null) {
+            return -1;
+        }
+        return ALLOCATION.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Gets the difference of the measurement.
+     *
+     * @param start the start value or {@code -1}.
+     * @param end the end value or {@code -1}.
+     * @return the difference or {@code -1} if not available.
+     */
+    static long delta(long start, long end) {
+        if (start < 0 || end < 0) {
+            return -1;
+        }
+        return Math.max(0, end - start);
+    }
+
+    /**
+     * Creates the message argument of the thread CPU time and allocated
+     * bytes. Only the measured values are written, for example
+     * {@code  cpu:0.012s alloc:1024B}.
+     *
+     * @param cpuTime the CPU time in nanoseconds or {@code -1}.
+     * @param allocatedBytes the allocated bytes or {@code -1}.
+     * @return the message argument.
+     */
+    public static MessageArgument argument(long cpuTime, long allocatedBytes) {
+        if (cpuTime < 0 && allocatedBytes < 0) {
+            return NONE;
+        }
+        return new Argument(cpuTime, allocatedBytes);
+    }
+
+    /**
+     * The message argument of the thread CPU time and allocated bytes.
+     */
+    private static final class Argument implements MessageArgument {
+
+        /**
+         * The CPU time in nanoseconds or {@code -1}.
+         */
+        private final long cpuTime;
+
+        /**
+         * The allocated bytes or {@code -1}.
+         */
+        private final long allocatedBytes;
+
+        /**
+         * The default constructor.
+         *
+         * @param cpuTime the CPU time in nanoseconds or {@code -1}.
+         * @param allocatedBytes the allocated bytes or {@code -1}.
+         */
+        Argument(long cpuTime, long allocatedBytes) {
+            this.cpuTime = cpuTime;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void appendTo(StringBuilder sb) {
+            if (cpuTime >= 0) {
+                sb.append(" cpu:");
+                InterceptorUtil.appendSeconds(sb, cpuTime);
+                sb.append('s');
+            }
+            if (allocatedBytes >= 0) {
+                sb.append(" alloc:").append(allocatedBytes).append('B');
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(32);
+            appendTo(sb);
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The sampling policy of the service method log messages. The policy logs
+ * every {@code sample}-th invocation and at most {@code rate} invocations per
+ * second. The rate is limited by the lock-free token bucket with the burst of
+ * one second.
+ *
+ * @author Andrej Petras
+ */
+public final class SamplingPolicy {
+
+    /**
+     * The token bucket window in nanoseconds.
+     */
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Logs one of the {@code sample} invocations.
+     */
+    private final int sample;
+
+    /**
+     * The maximal number of the logged invocations per second.
+     */
+    private final int rate;
+
+    /**
+     * The interval between two tokens in nanoseconds.
+     */
+    private final long interval;
+
+    /**
+     * The time of the last taken token. The bucket is full if the time is one
+     * window before now.
+     */
+    private final AtomicLong next = new AtomicLong(System.nanoTime() - WINDOW);
+
+    /**
+     * The invocation counter.
+     */
+    private final AtomicLong counter = new AtomicLong();
+
+    /**
+     * The default constructor.
+     *
+     * @param sample logs one of the {@code sample} invocations.
+     * @param rate the maximal number of the logged invocations per second.
+     */
+    public SamplingPolicy(int sample, int rate) {
+        this.sample = Math.max(1, sample);
+        this.rate = Math.max(0, rate);
+        this.interval = this.rate > 0 ? WINDOW / this.rate : 0;
+    }
+
+    /**
+     * Creates the sampling policy.
+     *
+     * @param sample logs one of the {@code sample} invocations.
+     * @param rate the maximal number of the logged invocations per second.
+     * @return the sampling policy or {@code null} if all invocations are
+     * logged.
+     */
+    public static SamplingPolicy create(int sample, int rate) {
+        if (sample <= 1 && rate <= 0) {
+            return null;
+        }
+        return new SamplingPolicy(sample, rate);
+    }
+
+    public int getSample() {
+        return sample;
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    /**
+     * Checks if the invocation is logged.
+     *
+     * @return {@code true} if the invocation is logged.
+     */
+    public boolean isSampled() {
+        if (sample > 1 && counter.getAndIncrement() % sample != 0) {
+            return false;
+        }
+        if (rate > 0) {
+            long now = System.nanoTime();
+            for (;;) {
+                long tmp = next.get();
+                long value = Math.max(tmp, now - WINDOW) + interval;
+                if (value - now > 0) {
+                    return false;
+                }
+                if (next.compareAndSet(tmp, value)) {
+                    return true;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,430 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.lorislab.jee.Configuration;
+import org.lorislab.jee.cdi.util.JelConfig;
+import org.lorislab.jee.logger.JsonMessage;
+import org.lorislab.jee.logger.LogWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The stack trace filter. The exception is identified by the fingerprint of
+ * the exception class, the top stack trace frames and the error key. The full
+ * stack trace of the fingerprint is logged once per time window, the next
+ * occurrences in the window are logged as the reference to the request with
+ * the full stack trace and counted. The number of suppressed stack traces is
+ * reported when the next window starts or, if the exception does not occur
+ * again, by the background task which removes the expired fingerprints.
+ *
+ * @author Andrej Petras
+ */
+public final class StackTraceFilter {
+
+    /**
+     * The logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(StackTraceFilter.class);
+
+    /**
+     * The time window in nanoseconds. The value {@code 0} disables the
+     * filter.
+     */
+    public static final long WINDOW;
+
+    /**
+     * The occurrence of the stack trace which is logged in full without
+     * suppressed stack traces.
+     */
+    private static final Occurrence FULL = new Occurrence(true, 0, null);
+
+    /**
+     * The filter instance.
+     */
+    private static final StackTraceFilter INSTANCE;
+
+    /**
+     * The flush task executor.
+     */
+    private static ScheduledExecutorService executor;
+
+    static {
+        Properties prop = JelConfig.loadConfig();
+        WINDOW = TimeUnit.MILLISECONDS.toNanos(JelConfig.getLongProperty("org.lorislab.jel.logger.stacktrace.window", 0, prop));
+        int frames = Math.max(0, JelConfig.getIntProperty("org.lorislab.jel.logger.stacktrace.frames", 5, prop));
+        int size = JelConfig.getIntProperty("org.lorislab.jel.logger.stacktrace.size", 1024, prop);
+        INSTANCE = new StackTraceFilter(WINDOW, frames, size);
+    }
+
+    /**
+     * The time window in nanoseconds.
+     */
+    private final long window;
+
+    /**
+     * The number of the top stack trace frames of the fingerprint.
+     */
+    private final int frames;
+
+    /**
+     * The maximal number of tracked fingerprints.
+     */
+    private final int maxSize;
+
+    /**
+     * The tracked fingerprints.
+     */
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The default constructor.
+     *
+     * @param window the time window in nanoseconds.
+     * @param frames the number of the top stack trace frames of the
+     * fingerprint.
+     * @param maxSize the maximal number of tracked fingerprints.
+     */
+    StackTraceFilter(long window, int frames, int maxSize) {
+        this.window = window;
+        this.frames = frames;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Checks the occurrence of the exception.
+     *
+     * @param logger the service logger.
+     * @param className the service class name.
+     * @param method the service method name.
+     * @param ex the exception.
+     * @param key the error key or {@code null}.
+     * @param requestId the request id.
+     * @return the occurrence of the exception.
+     */
+    public static Occurrence check(Logger logger, String className, String method, Throwable ex, Object key, String requestId) {
+        if (WINDOW <= 0) {
+            return FULL;
+        }
+        start();
+        return INSTANCE.check(logger, className, method, ex, key, requestId, System.nanoTime());
+    }
+
+    /**
+     * Starts the flush task.
+     */
+    private static synchronized void start() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "jel-stacktrace-filter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(() -> {
+                try {
+                    INSTANCE.flush(System.nanoTime());
+                } catch (Exception ex) {
+                    LOGGER.error("Error flushing the suppressed stack traces", ex);
+                }
+            }, WINDOW, WINDOW, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Stops the flush task, reports all suppressed stack traces and removes
+     * the tracked fingerprints.
+     */
+    public static synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        INSTANCE.flush(Long.MAX_VALUE);
+    }
+
+    /**
+     * Checks the occurrence of the exception.
+     *
+     * @param logger the service logger.
+     * @param className the service class name.
+     * @param method the service method name.
+     * @param ex the exception.
+     * @param key the error key or {@code null}.
+     * @param requestId the request id.
+     * @param now the current time in nanoseconds.
+     * @return the occurrence of the exception.
+     */
+    Occurrence check(Logger logger, String className, String method, Throwable ex, Object key, String requestId, long now) {
+        Long fingerprint = fingerprint(ex, key);
+        Entry entry = entries.get(fingerprint);
+        if (entry == null) {
+            if (entries.size() >= maxSize) {
+                flush(now);
+                if (entries.size() >= maxSize) {
+                    return FULL;
+                }
+            }
+            entry = new Entry(now, requestId, logger, className, method, ex.getClass().getName(), key);
+            Entry tmp = entries.putIfAbsent(fingerprint, entry);
+            if (tmp == null) {
+                return FULL;
+            }
+            entry = tmp;
+        }
+        long start = entry.windowStart.get();
+        if (now - start >= window && entry.windowStart.compareAndSet(start, now)) {
+            entry.requestId = requestId;
+            long suppressed = entry.suppressed.getAndSet(0);
+            if (suppressed == 0) {
+                return FULL;
+            }
+            return new Occurrence(true, suppressed, null);
+        }
+        entry.suppressed.incrementAndGet();
+        return new Occurrence(false, 0, entry.requestId);
+    }
+
+    /**
+     * Removes the fingerprints with the expired time window. The suppressed
+     * stack traces of the removed fingerprints are reported.
+     *
+     * @param now the current time in nanoseconds.
+     * @return the number of the removed fingerprints.
+     */
+    int flush(long now) {
+        int result = 0;
+        Iterator<Map.Entry<Long, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Entry> item = it.next();
+            Entry entry = item.getValue();
+            if (now - entry.windowStart.get() >= window && entries.remove(item.getKey(), entry)) {
+                result++;
+                long suppressed = entry.suppressed.getAndSet(0);
+                if (suppressed > 0) {
+                    logSuppressed(entry.logger, suppressed, entry.error, entry.key, entry.className, entry.method, null, window);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of tracked fingerprints.
+     *
+     * @return the number of tracked fingerprints.
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Logs the number of the suppressed stack traces.
+     *
+     * @param logger the service logger.
+     * @param count the number of the suppressed stack traces.
+     * @param error the exception class name.
+     * @param key the error key or {@code null}.
+     * @param className the service class name.
+     * @param method the service method name.
+     * @param requestId the request id or {@code null}.
+     * @param window the time window in nanoseconds.
+     */
+    static void logSuppressed(Logger logger, long count, String error, Object key, String className, String method, String requestId, long window) {
+        if (Configuration.JSON_FORMAT) {
+            LogWriter.warn(logger, JsonMessage.exception(JsonMessage.SUPPRESSED, requestId, className, method, window)
+                    .error(error, key, null).suppressed(count, null));
+        } else {
+            LogWriter.warn(logger, Configuration.msgExceptionSuppressed(count, error, new ElapsedTime(window)));
+        }
+    }
+
+    /**
+     * Creates the fingerprint of the exception.
+     *
+     * @param ex the exception.
+     * @param key the error key or {@code null}.
+     * @return the fingerprint of the exception.
+     */
+    long fingerprint(Throwable ex, Object key) {
+        long hash = hash(0xcbf29ce484222325L, ex.getClass().getName());
+        if (key != null) {
+            hash = hash(hash, key.toString());
+        }
+        if (ex.getCause() != null) {
+            hash = hash(hash, ex.getCause().getClass().getName());
+        }
+        StackTraceElement[] elements = ex.getStackTrace();
+        int size = Math.min(frames, elements.length);
+        for (int i = 0; i < size; i++) {
+            hash = hash(hash, elements[i].getClassName());
+            hash = hash(hash, elements[i].getMethodName());
+            hash = (hash ^ elements[i].getLineNumber()) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Updates the FNV-1a hash with the string.
+     *
+     * @param hash the hash.
+     * @param value the string.
+     * @return the updated hash.
+     */
+    private static long hash(long hash, String value) {
+        long result = hash;
+        for (int i = 0; i < value.length(); i++) {
+            result = (result ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return result;
+    }
+
+    /**
+     * The occurrence of the exception.
+     */
+    public static final class Occurrence {
+
+        /**
+         * The full stack trace flag.
+         */
+        private final boolean full;
+
+        /**
+         * The number of suppressed stack traces in the previous window.
+         */
+        private final long suppressed;
+
+        /**
+         * The request id of the full stack trace.
+         */
+        private final String requestId;
+
+        /**
+         * The default constructor.
+         *
+         * @param full the full stack trace flag.
+         * @param suppressed the number of suppressed stack traces.
+         * @param requestId the request id of the full stack trace.
+         */
+        Occurrence(boolean full, long suppressed, String requestId) {
+            this.full = full;
+            this.suppressed = suppressed;
+            this.requestId = requestId;
+        }
+
+        /**
+         * Checks if the full stack trace should be logged.
+         *
+         * @return {@code true} to log the full stack trace.
+         */
+        public boolean isFull() {
+            return full;
+        }
+
+        /**
+         * Gets the number of suppressed stack traces in the previous window.
+         *
+         * @return the number of suppressed stack traces.
+         */
+        public long getSuppressed() {
+            return suppressed;
+        }
+
+        /**
+         * Gets the request id of the logged full stack trace.
+         *
+         * @return the request id of the full stack trace.
+         */
+        public String getRequestId() {
+            return requestId;
+        }
+    }
+
+    /**
+     * The tracked fingerprint.
+     */
+    private static final class Entry {
+
+        /**
+         * The start of the time window.
+         */
+        final AtomicLong windowStart;
+
+        /**
+         * The number of suppressed stack traces.
+         */
+        final AtomicLong suppressed = new AtomicLong();
+
+        /**
+         * The request id of the full stack trace.
+         */
+        volatile String requestId;
+
+        /**
+         * The service logger.
+         */
+        final Logger logger;
+
+        /**
+         * The service class name.
+         */
+        final String className;
+
+        /**
+         * The service method name.
+         */
+        final String method;
+
+        /**
+         * The exception class name.
+         */
+        final String error;
+
+        /**
+         * The error key or {@code null}.
+         */
+        final Object key;
+
+        /**
+         * The default constructor.
+         *
+         * @param windowStart the start of the time window.
+         * @param requestId the request id of the full stack trace.
+         * @param logger the service logger.
+         * @param className the service class name.
+         * @param method the service method name.
+         * @param error the exception class name.
+         * @param key the error key or {@code null}.
+         */
+        Entry(long windowStart, String requestId, Logger logger, String className, String method, String error, Object key) {
+            this.windowStart = new AtomicLong(windowStart);
+            this.requestId = requestId;
+            this.logger = logger;
+            this.className = className;
+            this.method = method;
+            this.error = error;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.jpa.model;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Named;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Persistence;
+import javax.persistence.PersistenceUtil;
+import javax.persistence.Transient;
+import org.lorislab.java.lang.SoftClassValue;
+import org.lorislab.jee.logger.LoggerParameter;
+
+/**
+ * The entity log parameter. The entity is logged as the class name and the
+ * identifier with the list of not loaded attributes, for example
+ * {@code Order:42<lazy items>}. The not loaded entity is logged as
+ * {@code Order<lazy>}. The formatter checks the load state by the
+ * {@link PersistenceUtil} and never initializes the entity proxy or the lazy
+ * attributes. The identifier is read from the {@link Id} field or, for the
+ * property access and for the initialized entity proxy, by the getter method.
+ *
+ * @author Andrej Petras
+ */
+@Named
+@ApplicationScoped
+public class EntityLoggerParameter extends LoggerParameter {
+
+    /**
+     * The logger for this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(EntityLoggerParameter.class.getName());
+
+    /**
+     * The persistence util.
+     */
+    static final PersistenceUtil PERSISTENCE_UTIL = Persistence.getPersistenceUtil();
+
+    /**
+     * The entity metadata per class.
+     */
+    private static final SoftClassValue<EntityInfo> INFO = new SoftClassValue<EntityInfo>() {
+        @Override
+        protected EntityInfo computeValue(Class<?> type) {
+            return new EntityInfo(type);
+        }
+    };
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSupported(Class<?> clazz) {
+        return INFO.get(clazz).entity != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getObject(Object parameter) {
+        EntityInfo info = INFO.get(parameter.getClass());
+        StringBuilder sb = new StringBuilder();
+        sb.append(info.name);
+        boolean loaded = PERSISTENCE_UTIL.isLoaded(parameter);
+        // the identifier getter of the property access does not initialize the proxy
+        if (loaded || (info.propertyAccess && parameter.getClass() != info.entity)) {
+            Object id = info.getId(parameter);
+            if (id != null) {
+                sb.append(':').append(id);
+            }
+        }
+        if (!loaded) {
+            return sb.append("<lazy>").toString();
+        }
+        appendLazy(sb, parameter, PERSISTENCE_UTIL);
+        return sb.toString();
+    }
+
+    /**
+     * Appends the not loaded attributes of the entity.
+     *
+     * @param sb the string builder.
+     * @param entity the loaded entity.
+     * @param util the persistence util.
+     */
+    static void appendLazy(StringBuilder sb, Object entity, PersistenceUtil util) {
+        String[] attributes = INFO.get(entity.getClass()).attributes;
+        boolean first = true;
+        for (String attribute : attributes) {
+            if (!util.isLoaded(entity, attribute)) {
+                sb.append(first ? "<lazy " : ",").append(attribute);
+                first = false;
+            }
+        }
+        if (!first) {
+            sb.append('>');
+        }
+    }
+
+    /**
+     * Checks if the entity is loaded.
+     *
+     * @param entity the entity.
+     * @return {@code true} if the entity is loaded.
+     */
+    static boolean isLoaded(Object entity) {
+        return PERSISTENCE_UTIL.isLoaded(entity);
+    }
+
+    /**
+     * Checks if the member is the identifier.
+     *
+     * @param member the field or method.
+     * @return {@code true} if the member is the identifier.
+     */
+    private static boolean isId(AnnotatedElement member) {
+        return member.isAnnotationPresent(Id.class) || member.isAnnotationPresent(EmbeddedId.class);
+    }
+
+    /**
+     * Gets the property name of the getter method.
+     *
+     * @param method the method.
+     * @return the property name or {@code null} if the method is not the
+     * getter.
+     */
+    static String getPropertyName(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0 || method.getReturnType() == void.class) {
+            return null;
+        }
+        String name = method.getName();
+        int index;
+        if (name.startsWith("get") && name.length() > 3) {
+            index = 3;
+        } else if (name.startsWith("is") && name.length() > 2 && method.getReturnType() == boolean.class) {
+            index = 2;
+        } else {
+            return null;
+        }
+        return Character.toLowerCase(name.charAt(index)) + name.substring(index + 1);
+    }
+
+    /**
+     * The entity metadata.
+     */
+    private static final class EntityInfo {
+
+        /**
+         * The entity class or {@code null} if the class is not the entity. The
+         * entity proxy class is the subclass of the entity class.
+         */
+        private final Class<?> entity;
+
+        /**
+         * The entity name.
+         */
+        private final String name;
+
+        /**
+         * The identifier field.
+         */
+        private Field id;
+
+        /**
+         * The identifier getter method.
+         */
+        private Method idGetter;
+
+        /**
+         * The property access flag. The identifier is annotated on the getter
+         * method.
+         */
+        private boolean propertyAccess;
+
+        /**
+         * The persistent attributes.
+         */
+        private final String[] attributes;
+
+        /**
+         * The default constructor.
+         *
+         * @param type the class.
+         */
+        EntityInfo(Class<?> type) {
+            Class<?> tmp = type;
+            while (tmp != null && !tmp.isAnnotationPresent(Entity.class)) {
+                tmp = tmp.getSuperclass();
+            }
+            this.entity = tmp;
+            this.name = tmp != null ? tmp.getSimpleName() : type.getSimpleName();
+
+            List<String> fields = new ArrayList<>();
+            List<String> properties = new ArrayList<>();
+            Class<?> clazz = tmp;
+            while (clazz != null && clazz != Object.class) {
+                for (Field field : clazz.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isAnnotationPresent(Transient.class)) {
+                        continue;
+                    }
+                    if (isId(field)) {
+                        if (id == null) {
+                            try {
+                                field.setAccessible(true);
+                                id = field;
+                            } catch (RuntimeException ex) {
+                                LOGGER.log(Level.SEVERE, "Error set accessible the identifier {0}", field);
+                            }
+                        }
+                    } else {
+                        fields.add(field.getName());
+                    }
+                }
+                for (Method method : clazz.getDeclaredMethods()) {
+                    String property = getPropertyName(method);
+                    if (property == null || method.isBridge() || method.isAnnotationPresent(Transient.class)) {
+                        continue;
+                    }
+                    if (isId(method)) {
+                        if (idGetter == null) {
+                            idGetter = accessible(method);
+                            propertyAccess = true;
+                        }
+                    } else if (!properties.contains(property)) {
+                        properties.add(property);
+                    }
+                }
+                clazz = clazz.getSuperclass();
+            }
+            if (id != null && idGetter == null) {
+                // the getter of the identifier field for the initialized proxy
+                String property = Character.toUpperCase(id.getName().charAt(0)) + id.getName().substring(1);
+                try {
+                    idGetter = accessible(entity.getMethod("get" + property));
+                } catch (NoSuchMethodException ex) {
+                    LOGGER.log(Level.FINE, "No getter method of the identifier {0}", id);
+                }
+            }
+            List<String> names = propertyAccess && id == null ? properties : fields;
+            this.attributes = names.toArray(new String[names.size()]);
+        }
+
+        /**
+         * Sets the method accessible.
+         *
+         * @param method the method.
+         * @return the accessible method or {@code null}.
+         */
+        private static Method accessible(Method method) {
+            try {
+                method.setAccessible(true);
+                return method;
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.SEVERE, "Error set accessible the identifier getter {0}", method);
+            }
+            return null;
+        }
+
+        /**
+         * Gets the identifier of the entity. The identifier field of the
+         * proxy is not initialized, so the proxy identifier is read by the
+         * getter method.
+         *
+         * @param value the entity or the entity proxy.
+         * @return the identifier or {@code null}.
+         */
+        Object getId(Object value) {
+            try {
+                if (idGetter != null && (propertyAccess || value.getClass() != entity)) {
+                    return idGetter.invoke(value);
+                }
+                if (id != null) {
+                    return id.get(value);
+                }
+            } catch (IllegalAccessException | InvocationTargetException ex) {
+                LOGGER.log(Level.SEVERE, "Error get the identifier value of the entity {0}", name);
+            }
+            return null;
+        }
+    }
+}
@@ -17,6 +17,7 @@ package org.lorislab.jee.jpa.model;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Named;
+import javax.persistence.PersistenceUtil;
 import org.lorislab.jee.logger.LoggerParameter;
 
 
@@ -34,8 +35,16 @@ public class PersistentLogParameter extends LoggerParameter {
      */
     @Override
     public String getObject(Object parameter) {
+        PersistenceUtil util = EntityLoggerParameter.PERSISTENCE_UTIL;
+        if (!util.isLoaded(parameter)) {
+            // do not initialize the entity proxy
+            return parameter.getClass().getSimpleName() + "<lazy>";
+        }
         AbstractPersistent tmp = (AbstractPersistent) parameter;
-        return parameter.getClass().getSimpleName() + ":" + tmp.getGuid();
+        StringBuilder sb = new StringBuilder();
+        sb.append(parameter.getClass().getSimpleName()).append(':').append(tmp.getGuid());
+        EntityLoggerParameter.appendLazy(sb, parameter, util);
+        return sb.toString();
     }
 
     @Override
@@ -15,18 +15,29 @@
  */
 package org.lorislab.jee.logger;
 
+import java.lang.reflect.Array;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Named;
+import org.lorislab.jee.cdi.util.JelConfig;
 
 /**
- * The byte array log parameter.
+ * The array log parameter. The array is logged as the type and the length,
+ * for example {@code long[1000]}. The first elements of the array are logged
+ * if the preview {@code org.lorislab.jel.logger.array.preview} is set, for
+ * example {@code long[1000]{1,2,3,...}}. The elements of the multi-dimensional
+ * array are logged as the arrays without the preview.
  *
  * @author Andrej Petras
  */
 @Named
 @ApplicationScoped
 public class ArrayLoggerParameter extends LoggerParameter {
-    
+
+    /**
+     * The number of the logged elements.
+     */
+    private static final int PREVIEW = JelConfig.getIntProperty("org.lorislab.jel.logger.array.preview", 0, JelConfig.loadConfig());
+
     /**
      * {@inheritDoc}
      */
@@ -40,6 +51,8 @@ public class ArrayLoggerParameter extends LoggerParameter {
             boolean[].class,
             long[].class,
             byte[].class,
+            short[].class,
+            char[].class,
             Integer[].class,
             Double[].class,
             String[].class,
@@ -49,15 +62,118 @@ public class ArrayLoggerParameter extends LoggerParameter {
         };        
     }
 
-    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Class getAssignableFrom() {
+        return Object[].class;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public String getObject(Object parameter) {
-        byte[] tmp = (byte[]) parameter;
         StringBuilder sb = new StringBuilder();
-        sb.append("byte[").append(tmp.length).append(']');            
+        appendArray(sb, parameter, PREVIEW);
         return sb.toString();        
     }
+
+    /**
+     * Appends the array type, the length and the preview of the elements.
+     *
+     * @param sb the string builder.
+     * @param array the array.
+     * @param preview the number of the logged elements.
+     */
+    static void appendArray(StringBuilder sb, Object array, int preview) {
+        Class<?> type = array.getClass().getComponentType();
+        int dimensions = 0;
+        while (type.isArray()) {
+            type = type.getComponentType();
+            dimensions++;
+        }
+        int length = Array.getLength(array);
+        sb.append(type.getSimpleName()).append('[').append(length).append(']');
+        for (int i = 0; i < dimensions; i++) {
+            sb.append("[]");
+        }
+        int size = Math.min(length, preview);
+        if (size <= 0) {
+            return;
+        }
+        sb.append('{');
+        if (array instanceof int[]) {
+            int[] tmp = (int[]) array;
+            for (int i = 0; i < size; i++) {
+                separator(sb, i).append(tmp[i]);
+            }
+        } else if (array instanceof long[]) {
+            long[] tmp = (long[]) array;
+            for (int i = 0; i < size; i++) {
+                separator(sb, i).append(tmp[i]);
+            }
+        } else if (array instanceof byte[]) {
+            byte[] tmp = (byte[]) array;
+            for (int i = 0; i < size; i++) {
+                separator(sb, i).append(tmp[i]);
+            }
+        } else if (array instanceof short[]) {
+            short[] tmp = (short[]) array;
+            for (int i = 0; i < size; i++) {
+                separator(sb, i).append(tmp[i]);
+            }
+        } else if (array instanceof char[]) {
+            char[] tmp = (char[]) array;
+            for (int i = 0; i < size; i++) {
+                separator(sb, i).append(tmp[i]);
+            }
+        } else if (array instanceof double[]) {
+            double[] tmp = (double[]) array;
+            for (int i = 0; i < size; i++) {
+                separator(sb, i).append(tmp[i]);
+            }
+        } else if (array instanceof float[]) {
+            float[] tmp = (float[]) array;
+            for (int i = 0; i < size; i++) {
+                separator(sb, i).append(tmp[i]);
+            }
+        } else if (array instanceof boolean[]) {
+            boolean[] tmp = (boolean[]) array;
+            for (int i = 0; i < size; i++) {
+                separator(sb, i).append(tmp[i]);
+            }
+        } else {
+            Object[] tmp = (Object[]) array;
+            for (int i = 0; i < size; i++) {
+                separator(sb, i);
+                if (tmp[i] != null && tmp[i].getClass().isArray()) {
+                    appendArray(sb, tmp[i], 0);
+                } else if (tmp[i] instanceof Class) {
+                    sb.append(((Class<?>) tmp[i]).getName());
+                } else {
+                    sb.append(tmp[i]);
+                }
+            }
+        }
+        if (size < length) {
+            sb.append(",...");
+        }
+        sb.append('}');
+    }
+
+    /**
+     * Appends the element separator.
+     *
+     * @param sb the string builder.
+     * @param index the element index.
+     * @return the string builder.
+     */
+    private static StringBuilder separator(StringBuilder sb, int index) {
+        if (index > 0) {
+            sb.append(',');
+        }
+        return sb;
+    }
 }
@@ -17,10 +17,12 @@ package org.lorislab.jee.logger;
 
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.lang.reflect.TypeVariable;
 import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Named;
+import org.lorislab.java.lang.SoftClassValue;
 
 /**
  * The collection log parameter.
@@ -30,7 +32,18 @@ import javax.inject.Named;
 @Named
 @ApplicationScoped
 public class CollectionLoggerParameter extends LoggerParameter {
-    
+
+    /**
+     * The element type of the collection class. The item is {@code null} if
+     * the element type is the type variable.
+     */
+    private static final SoftClassValue<Class<?>[]> TYPES = new SoftClassValue<Class<?>[]>() {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type) {
+            return new Class<?>[]{getTypeArgument(type, 0)};
+        }
+    };
+
     /**
      * {@inheritDoc}
      */
@@ -53,30 +66,54 @@ public class CollectionLoggerParameter extends LoggerParameter {
             sb.append("empty ").append(name);
         } else {
             sb.append(name).append('(').append(tmp.size());
-            Class clazz = Object.class;
-            if (parameter.getClass().getGenericSuperclass() instanceof ParameterizedType) {
-                ParameterizedType parameterizedType = (ParameterizedType) parameter.getClass().getGenericSuperclass();
-                Type type = parameterizedType.getActualTypeArguments()[0];
-                clazz = type.getClass();
+            Class<?> clazz = TYPES.get(tmp.getClass())[0];
+            if (clazz == null) {
+                // load first item from the collection
+                Object obj = getFirst(tmp);
+                clazz = obj != null ? obj.getClass() : Object.class;
+            }
+            sb.append(clazz.getSimpleName());
+            sb.append(')');
+        }
+        return sb.toString();        
+    }
 
-                // check generic type variable
-                if (type instanceof TypeVariable) {
+    /**
+     * Gets the first item of the collection. The random access list item is
+     * loaded without the iterator.
+     *
+     * @param collection the not empty collection.
+     * @return the first item of the collection.
+     */
+    static Object getFirst(Collection<?> collection) {
+        if (collection instanceof List && collection instanceof RandomAccess) {
+            return ((List<?>) collection).get(0);
+        }
+        return collection.iterator().next();
+    }
 
-                    // load first item from the collection
-                    Object obj = tmp.iterator().next();
-                    if (obj != null) {
-                        clazz = obj.getClass();
-                    }
+    /**
+     * Gets the type argument of the generic superclass of the class.
+     *
+     * @param clazz the class.
+     * @param index the type argument index.
+     * @return the class of the type argument or {@code null} if the type
+     * argument is the type variable.
+     */
+    static Class<?> getTypeArgument(Class<?> clazz, int index) {
+        Type superclass = clazz.getGenericSuperclass();
+        if (superclass instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) superclass).getActualTypeArguments();
+            if (index < arguments.length) {
+                Type type = arguments[index];
+                if (type instanceof Class) {
+                    return (Class<?>) type;
                 }
-            } else {
-                Object obj = tmp.iterator().next();
-                if (obj != null) {
-                    clazz = obj.getClass();
+                if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() instanceof Class) {
+                    return (Class<?>) ((ParameterizedType) type).getRawType();
                 }
             }
-            sb.append(clazz.getSimpleName());
-            sb.append(')');
         }
-        return sb.toString();        
+        return null;
     }
 }
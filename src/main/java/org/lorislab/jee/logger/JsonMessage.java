@@ -0,0 +1,375 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.logger;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import org.lorislab.java.text.JsonWriter;
+
+/**
+ * The structured log message which is written as a single JSON object. The
+ * message is rendered in the {@link #toString()} method, the parameters and
+ * the result are rendered only if the message is written.
+ *
+ * @author Andrej Petras
+ */
+public final class JsonMessage {
+
+    /**
+     * The started status.
+     */
+    public static final String STARTED = "started";
+
+    /**
+     * The succeed status.
+     */
+    public static final String SUCCEED = "succeed";
+
+    /**
+     * The failed status.
+     */
+    public static final String FAILED = "failed";
+
+    /**
+     * The exception status.
+     */
+    public static final String EXCEPTION = "exception";
+
+    /**
+     * The repeated exception status. The stack trace was logged by the other
+     * request.
+     */
+    public static final String REPEATED = "repeated";
+
+    /**
+     * The suppressed stack traces status.
+     */
+    public static final String SUPPRESSED = "suppressed";
+
+    /**
+     * The service event type.
+     */
+    public static final String SERVICE = "service";
+
+    /**
+     * The REST server event type.
+     */
+    public static final String REST = "rest";
+
+    /**
+     * The REST client event type.
+     */
+    public static final String CLIENT = "client";
+
+    /**
+     * The aggregated invocations event type.
+     */
+    public static final String AGGREGATE = "aggregate";
+
+    private static final String FIELD_TYPE = JsonWriter.name("type");
+    private static final String FIELD_STATUS = JsonWriter.name("status");
+    private static final String FIELD_REQUEST_ID = JsonWriter.name("requestId");
+    private static final String FIELD_PRINCIPAL = JsonWriter.name("principal");
+    private static final String FIELD_CLASS = JsonWriter.name("class");
+    private static final String FIELD_METHOD = JsonWriter.name("method");
+    private static final String FIELD_URI = JsonWriter.name("uri");
+    private static final String FIELD_PARAMS = JsonWriter.name("params");
+    private static final String FIELD_RESULT = JsonWriter.name("result");
+    private static final String FIELD_DURATION = JsonWriter.name("durationNanos");
+    private static final String FIELD_CLIENT_HOST = JsonWriter.name("clientHost");
+    private static final String FIELD_CPU = JsonWriter.name("cpuNanos");
+    private static final String FIELD_ALLOCATED = JsonWriter.name("allocatedBytes");
+    private static final String FIELD_ERROR = JsonWriter.name("error");
+    private static final String FIELD_ERROR_KEY = JsonWriter.name("errorKey");
+    private static final String FIELD_ERROR_MESSAGE = JsonWriter.name("errorMessage");
+    private static final String FIELD_SUPPRESSED = JsonWriter.name("suppressed");
+    private static final String FIELD_STACK_TRACE = JsonWriter.name("stackTrace");
+    private static final String FIELD_STACK_TRACE_REQUEST_ID = JsonWriter.name("stackTraceRequestId");
+
+    /**
+     * The event type.
+     */
+    private final String type;
+
+    /**
+     * The status.
+     */
+    private final Object status;
+
+    /**
+     * The request id.
+     */
+    private final String requestId;
+
+    /**
+     * The principal.
+     */
+    private final String principal;
+
+    /**
+     * The class name.
+     */
+    private final String className;
+
+    /**
+     * The method name.
+     */
+    private final String method;
+
+    /**
+     * The request URI.
+     */
+    private final Object uri;
+
+    /**
+     * The parameters.
+     */
+    private final Object parameters;
+
+    /**
+     * The result.
+     */
+    private final Object result;
+
+    /**
+     * The duration in nanoseconds or {@code -1}.
+     */
+    private final long duration;
+
+    /**
+     * The client host.
+     */
+    private final String clientHost;
+
+    /**
+     * The thread CPU time in nanoseconds or {@code -1}.
+     */
+    private long cpuTime = -1;
+
+    /**
+     * The thread allocated bytes or {@code -1}.
+     */
+    private long allocatedBytes = -1;
+
+    /**
+     * The exception class name.
+     */
+    private String error;
+
+    /**
+     * The error key.
+     */
+    private Object errorKey;
+
+    /**
+     * The error message.
+     */
+    private Object errorMessage;
+
+    /**
+     * The exception with the logged stack trace.
+     */
+    private Throwable stackTrace;
+
+    /**
+     * The number of the suppressed stack traces or {@code -1}.
+     */
+    private long suppressed = -1;
+
+    /**
+     * The request id of the logged stack trace.
+     */
+    private String stackTraceRequestId;
+
+    /**
+     * The default constructor.
+     */
+    private JsonMessage(String type, Object status, String requestId, String principal, String className, String method, Object uri, Object parameters, Object result, long duration, String clientHost) {
+        this.type = type;
+        this.status = status;
+        this.requestId = requestId;
+        this.principal = principal;
+        this.className = className;
+        this.method = method;
+        this.uri = uri;
+        this.parameters = parameters;
+        this.result = result;
+        this.duration = duration;
+        this.clientHost = clientHost;
+    }
+
+    /**
+     * Creates the service message.
+     *
+     * @param status the status.
+     * @param requestId the request id.
+     * @param principal the principal.
+     * @param className the service class name.
+     * @param method the service method name.
+     * @param parameters the service parameters.
+     * @param result the service result.
+     * @param duration the duration in nanoseconds or {@code -1}.
+     * @param clientHost the client host.
+     * @return the service message.
+     */
+    public static JsonMessage service(String status, String requestId, String principal, String className, String method, Object parameters, Object result, long duration, String clientHost) {
+        return new JsonMessage(SERVICE, status, requestId, principal, className, method, null, parameters, result, duration, clientHost);
+    }
+
+    /**
+     * Creates the REST message.
+     *
+     * @param type the event type {@link #REST} or {@link #CLIENT}.
+     * @param status the status or the HTTP status code.
+     * @param requestId the request id.
+     * @param principal the principal.
+     * @param method the HTTP method.
+     * @param uri the request URI.
+     * @param duration the duration in nanoseconds or {@code -1}.
+     * @param clientHost the client host.
+     * @return the REST message.
+     */
+    public static JsonMessage rest(String type, Object status, String requestId, String principal, String method, Object uri, long duration, String clientHost) {
+        return new JsonMessage(type, status, requestId, principal, null, method, uri, null, null, duration, clientHost);
+    }
+
+    /**
+     * Creates the service exception message.
+     *
+     * @param status the status {@link #EXCEPTION}, {@link #REPEATED} or
+     * {@link #SUPPRESSED}.
+     * @param requestId the request id.
+     * @param className the service class name.
+     * @param method the service method name.
+     * @param duration the duration in nanoseconds or {@code -1}.
+     * @return the service exception message.
+     */
+    public static JsonMessage exception(String status, String requestId, String className, String method, long duration) {
+        return new JsonMessage(SERVICE, status, requestId, null, className, method, null, null, null, duration, null);
+    }
+
+    /**
+     * Sets the exception of the message. The stack trace is written in the
+     * {@code stackTrace} field instead of the plain text after the message.
+     *
+     * @param exception the exception.
+     * @param key the error key or {@code null}.
+     * @param message the error message or {@code null} for the exception
+     * message.
+     * @param withStackTrace the stack trace flag.
+     * @return the message.
+     */
+    public JsonMessage error(Throwable exception, Object key, Object message, boolean withStackTrace) {
+        this.error = exception.getClass().getName();
+        this.errorKey = key;
+        this.errorMessage = message != null ? message : exception.getMessage();
+        this.stackTrace = withStackTrace ? exception : null;
+        return this;
+    }
+
+    /**
+     * Sets the error of the message without the exception instance.
+     *
+     * @param error the exception class name.
+     * @param key the error key or {@code null}.
+     * @param message the error message or {@code null}.
+     * @return the message.
+     */
+    public JsonMessage error(String error, Object key, Object message) {
+        this.error = error;
+        this.errorKey = key;
+        this.errorMessage = message;
+        this.stackTrace = null;
+        return this;
+    }
+
+    /**
+     * Sets the suppressed stack traces of the message.
+     *
+     * @param count the number of the suppressed stack traces or {@code -1}.
+     * @param requestId the request id of the logged stack trace or
+     * {@code null}.
+     * @return the message.
+     */
+    public JsonMessage suppressed(long count, String requestId) {
+        this.suppressed = count;
+        this.stackTraceRequestId = requestId;
+        return this;
+    }
+
+    /**
+     * Sets the thread CPU time and allocated bytes of the service call.
+     *
+     * @param cpuTime the CPU time in nanoseconds or {@code -1}.
+     * @param allocatedBytes the allocated bytes or {@code -1}.
+     * @return the message.
+     */
+    public JsonMessage usage(long cpuTime, long allocatedBytes) {
+        this.cpuTime = cpuTime;
+        this.allocatedBytes = allocatedBytes;
+        return this;
+    }
+
+    /**
+     * Appends the JSON object to the string builder.
+     *
+     * @param sb the string builder.
+     * @return the string builder.
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        JsonWriter writer = new JsonWriter(sb).begin()
+                .field(FIELD_TYPE, type)
+                .field(FIELD_STATUS, status)
+                .field(FIELD_REQUEST_ID, requestId)
+                .field(FIELD_PRINCIPAL, principal)
+                .field(FIELD_CLASS, className)
+                .field(FIELD_METHOD, method)
+                .field(FIELD_URI, uri)
+                .field(FIELD_PARAMS, parameters)
+                .field(FIELD_RESULT, result);
+        if (duration >= 0) {
+            writer.field(FIELD_DURATION, duration);
+        }
+        if (cpuTime >= 0) {
+            writer.field(FIELD_CPU, cpuTime);
+        }
+        if (allocatedBytes >= 0) {
+            writer.field(FIELD_ALLOCATED, allocatedBytes);
+        }
+        writer.field(FIELD_CLIENT_HOST, clientHost)
+                .field(FIELD_ERROR, error)
+                .field(FIELD_ERROR_KEY, errorKey)
+                .field(FIELD_ERROR_MESSAGE, errorMessage);
+        if (suppressed >= 0) {
+            writer.field(FIELD_SUPPRESSED, suppressed);
+        }
+        writer.field(FIELD_STACK_TRACE_REQUEST_ID, stackTraceRequestId);
+        if (stackTrace != null) {
+            StringWriter tmp = new StringWriter();
+            stackTrace.printStackTrace(new PrintWriter(tmp));
+            writer.field(FIELD_STACK_TRACE, tmp);
+        }
+        return writer.end();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(256)).toString();
+    }
+}
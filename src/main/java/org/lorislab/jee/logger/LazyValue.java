@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.logger;
+
+/**
+ * The deferred log value. The value is rendered on the first
+ * {@link #toString()} call, which happens only if the log event is written,
+ * and the rendered string is reused for the next log messages.
+ *
+ * @author Andrej Petras
+ */
+public abstract class LazyValue {
+
+    /**
+     * The rendered value.
+     */
+    private String value;
+
+    /**
+     * Renders the value.
+     *
+     * @return the rendered value.
+     */
+    protected abstract String render();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        String tmp = value;
+        if (tmp == null) {
+            tmp = render();
+            value = tmp;
+        }
+        return tmp;
+    }
+
+}
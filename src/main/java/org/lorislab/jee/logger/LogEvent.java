@@ -0,0 +1,150 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.logger;
+
+import org.slf4j.Logger;
+import org.slf4j.MDC;
+import org.slf4j.event.Level;
+
+/**
+ * The immutable log event.
+ *
+ * @author Andrej Petras
+ */
+public final class LogEvent {
+
+    /**
+     * The logger.
+     */
+    private final Logger logger;
+
+    /**
+     * The log level.
+     */
+    private final Level level;
+
+    /**
+     * The log message.
+     */
+    private final Object message;
+
+    /**
+     * The exception.
+     */
+    private final Throwable throwable;
+
+    /**
+     * The request id.
+     */
+    private final String requestId;
+
+    /**
+     * The default constructor.
+     *
+     * @param logger the logger.
+     * @param level the log level.
+     * @param message the log message.
+     * @param throwable the exception.
+     * @param requestId the request id.
+     */
+    public LogEvent(Logger logger, Level level, Object message, Throwable throwable, String requestId) {
+        this.logger = logger;
+        this.level = level;
+        this.message = message;
+        this.throwable = throwable;
+        this.requestId = requestId;
+    }
+
+    public Logger getLogger() {
+        return logger;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public Object getMessage() {
+        return message;
+    }
+
+    public Throwable getThrowable() {
+        return throwable;
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * Writes the log event to the logger.
+     */
+    public void write() {
+        write(logger, level, message, throwable);
+    }
+
+    /**
+     * Writes the log message to the logger.
+     *
+     * @param logger the logger.
+     * @param level the log level.
+     * @param message the log message.
+     * @param throwable the exception.
+     */
+    static void write(Logger logger, Level level, Object message, Throwable throwable) {
+        switch (level) {
+            case ERROR:
+                if (throwable == null) {
+                    logger.error("{}", message);
+                } else {
+                    logger.error("{}", message, throwable);
+                }
+                break;
+            case WARN:
+                if (throwable == null) {
+                    logger.warn("{}", message);
+                } else {
+                    logger.warn("{}", message, throwable);
+                }
+                break;
+            case INFO:
+                logger.info("{}", message);
+                break;
+            case DEBUG:
+                logger.debug("{}", message);
+                break;
+            default:
+                logger.trace("{}", message);
+        }
+    }
+
+    /**
+     * Writes the log event to the logger with the request id in the MDC.
+     *
+     * @param logId the MDC key of the request id.
+     */
+    public void writeWithRequestId(String logId) {
+        if (requestId != null) {
+            MDC.put(logId, requestId);
+        }
+        try {
+            write();
+        } finally {
+            if (requestId != null) {
+                MDC.remove(logId);
+            }
+        }
+    }
+}
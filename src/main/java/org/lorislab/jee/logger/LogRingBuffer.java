@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The bounded lock-free ring buffer for many producers and one consumer. Each
+ * slot has a sequence number which tells the producers and the consumer if the
+ * slot is free or published.
+ *
+ * @author Andrej Petras
+ */
+final class LogRingBuffer {
+
+    /**
+     * The slots.
+     */
+    private final AtomicReferenceArray<LogEvent> buffer;
+
+    /**
+     * The slot sequences.
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * The index mask.
+     */
+    private final int mask;
+
+    /**
+     * The producer position.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * The consumer position. Only the consumer thread updates this value.
+     */
+    private long tail;
+
+    /**
+     * The default constructor.
+     *
+     * @param capacity the minimal capacity. The capacity is rounded up to the
+     * power of two.
+     */
+    LogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        buffer = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Adds the event to the buffer.
+     *
+     * @param event the log event.
+     * @return {@code true} if the event was added or {@code false} if the
+     * buffer is full.
+     */
+    boolean offer(LogEvent event) {
+        long pos = head.get();
+        for (;;) {
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    buffer.lazySet(index, event);
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    /**
+     * Checks if the buffer is empty. This method must be called only from the
+     * consumer thread.
+     *
+     * @return {@code true} if there is no published event.
+     */
+    boolean isEmpty() {
+        long pos = tail;
+        return sequences.get((int) pos & mask) - (pos + 1) < 0;
+    }
+
+    /**
+     * Removes the next event from the buffer. This method must be called only
+     * from the consumer thread.
+     *
+     * @return the next event or {@code null} if the buffer is empty.
+     */
+    LogEvent poll() {
+        long pos = tail;
+        int index = (int) pos & mask;
+        if (sequences.get(index) - (pos + 1) < 0) {
+            return null;
+        }
+        LogEvent result = buffer.get(index);
+        buffer.lazySet(index, null);
+        sequences.set(index, pos + mask + 1);
+        tail = pos + 1;
+        return result;
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.logger;
+
+/**
+ * The log value utility.
+ *
+ * @author Andrej Petras
+ */
+public final class LogValues {
+
+    /**
+     * The truncated value suffix.
+     */
+    public static final String TRUNCATED = "...";
+
+    /**
+     * The masked value.
+     */
+    public static final String MASK = "***";
+
+    /**
+     * The default constructor.
+     */
+    private LogValues() {
+        // empty constructor
+    }
+
+    /**
+     * Appends the value up to the maximal number of characters. Only the
+     * appended part of the character sequence is copied. The truncated value
+     * ends with {@link #TRUNCATED}.
+     *
+     * @param sb the string builder.
+     * @param value the value.
+     * @param maxLength the maximal number of characters or {@code 0} or
+     * {@code -1} for no limit.
+     * @return the string builder.
+     */
+    public static StringBuilder append(StringBuilder sb, Object value, int maxLength) {
+        CharSequence tmp = value instanceof CharSequence ? (CharSequence) value : String.valueOf(value);
+        if (maxLength <= 0 || tmp.length() <= maxLength) {
+            return sb.append(tmp);
+        }
+        return sb.append(tmp, 0, maxLength).append(TRUNCATED);
+    }
+
+    /**
+     * Appends the value up to the maximal number of characters and up to the
+     * maximal length of the string builder. The truncated value ends with
+     * {@link #TRUNCATED}.
+     *
+     * @param sb the string builder.
+     * @param value the value.
+     * @param maxLength the maximal number of characters of the value or
+     * {@code 0} or {@code -1} for no limit.
+     * @param limit the maximal length of the string builder.
+     * @return {@code false} if the string builder reached the limit.
+     */
+    public static boolean append(StringBuilder sb, Object value, int maxLength, int limit) {
+        int remaining = limit - sb.length();
+        if (maxLength > 0 && maxLength < remaining) {
+            append(sb, value, maxLength);
+            return true;
+        }
+        CharSequence tmp = value instanceof CharSequence ? (CharSequence) value : String.valueOf(value);
+        if (tmp.length() <= remaining) {
+            sb.append(tmp);
+            return true;
+        }
+        if (remaining > 0) {
+            sb.append(tmp, 0, remaining);
+        }
+        sb.append(TRUNCATED);
+        return false;
+    }
+
+    /**
+     * Appends the primitive value without boxing up to the maximal number of
+     * characters and up to the maximal length of the string builder.
+     *
+     * @param sb the string builder.
+     * @param value the value.
+     * @param maxLength the maximal number of characters of the value or
+     * {@code 0} or {@code -1} for no limit.
+     * @param limit the maximal length of the string builder.
+     * @return {@code false} if the string builder reached the limit.
+     * @see #append(StringBuilder, Object, int, int)
+     */
+    public static boolean append(StringBuilder sb, long value, int maxLength, int limit) {
+        int start = sb.length();
+        sb.append(value);
+        return truncate(sb, start, maxLength, limit);
+    }
+
+    /**
+     * Appends the primitive value without boxing up to the maximal number of
+     * characters and up to the maximal length of the string builder.
+     *
+     * @param sb the string builder.
+     * @param value the value.
+     * @param maxLength the maximal number of characters of the value or
+     * {@code 0} or {@code -1} for no limit.
+     * @param limit the maximal length of the string builder.
+     * @return {@code false} if the string builder reached the limit.
+     * @see #append(StringBuilder, Object, int, int)
+     */
+    public static boolean append(StringBuilder sb, double value, int maxLength, int limit) {
+        int start = sb.length();
+        sb.append(value);
+        return truncate(sb, start, maxLength, limit);
+    }
+
+    /**
+     * Appends the primitive value without boxing up to the maximal number of
+     * characters and up to the maximal length of the string builder.
+     *
+     * @param sb the string builder.
+     * @param value the value.
+     * @param maxLength the maximal number of characters of the value or
+     * {@code 0} or {@code -1} for no limit.
+     * @param limit the maximal length of the string builder.
+     * @return {@code false} if the string builder reached the limit.
+     * @see #append(StringBuilder, Object, int, int)
+     */
+    public static boolean append(StringBuilder sb, boolean value, int maxLength, int limit) {
+        int start = sb.length();
+        sb.append(value);
+        return truncate(sb, start, maxLength, limit);
+    }
+
+    /**
+     * Appends the primitive value without boxing up to the maximal number of
+     * characters and up to the maximal length of the string builder.
+     *
+     * @param sb the string builder.
+     * @param value the value.
+     * @param maxLength the maximal number of characters of the value or
+     * {@code 0} or {@code -1} for no limit.
+     * @param limit the maximal length of the string builder.
+     * @return {@code false} if the string builder reached the limit.
+     * @see #append(StringBuilder, Object, int, int)
+     */
+    public static boolean append(StringBuilder sb, char value, int maxLength, int limit) {
+        int start = sb.length();
+        sb.append(value);
+        return truncate(sb, start, maxLength, limit);
+    }
+
+    /**
+     * Truncates the value appended from the start position to the maximal
+     * number of characters and to the maximal length of the string builder.
+     *
+     * @param sb the string builder.
+     * @param start the start position of the value.
+     * @param maxLength the maximal number of characters of the value or
+     * {@code 0} or {@code -1} for no limit.
+     * @param limit the maximal length of the string builder.
+     * @return {@code false} if the string builder reached the limit.
+     */
+    private static boolean truncate(StringBuilder sb, int start, int maxLength, int limit) {
+        if (maxLength > 0 && maxLength < limit - start) {
+            if (sb.length() - start > maxLength) {
+                sb.setLength(start + maxLength);
+                sb.append(TRUNCATED);
+            }
+            return true;
+        }
+        if (sb.length() <= limit) {
+            return true;
+        }
+        sb.setLength(Math.max(start, limit));
+        sb.append(TRUNCATED);
+        return false;
+    }
+
+    /**
+     * Gets the maximal length of the string builder for the output budgets.
+     *
+     * @param sb the string builder.
+     * @param maxLength the maximal number of appended characters or {@code 0}
+     * or {@code -1} for no limit.
+     * @param formatLength the maximal number of characters of the format or
+     * {@code 0} or {@code -1} for no limit.
+     * @return the maximal length of the string builder.
+     */
+    public static int limit(StringBuilder sb, int maxLength, int formatLength) {
+        int max = maxLength > 0 ? maxLength : Integer.MAX_VALUE;
+        if (formatLength > 0 && formatLength < max) {
+            max = formatLength;
+        }
+        return max == Integer.MAX_VALUE ? max : sb.length() + max;
+    }
+
+    /**
+     * Gets the string of the string builder with the maximal number of
+     * characters.
+     *
+     * @param sb the string builder.
+     * @param maxLength the maximal number of characters or {@code 0} or
+     * {@code -1} for no limit.
+     * @return the string.
+     */
+    public static String toString(StringBuilder sb, int maxLength) {
+        if (maxLength <= 0 || sb.length() <= maxLength) {
+            return sb.toString();
+        }
+        return sb.substring(0, maxLength) + TRUNCATED;
+    }
+}
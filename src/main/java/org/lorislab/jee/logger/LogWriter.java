@@ -0,0 +1,321 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.logger;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.lorislab.jee.cdi.util.JelConfig;
+import org.lorislab.jee.interceptor.RequestDataThreadHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.event.Level;
+
+/**
+ * The log writer for the interceptor and REST filter messages. The messages
+ * are written directly to the logger or, in the asynchronous mode, to the ring
+ * buffer which is consumed by the log writer thread.
+ *
+ * @author Andrej Petras
+ */
+public final class LogWriter {
+
+    /**
+     * The logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogWriter.class);
+
+    /**
+     * The overflow policy of the asynchronous mode.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * Drops the event and increments the dropped counter.
+         */
+        DROP,
+
+        /**
+         * Waits until the buffer has free space.
+         */
+        BLOCK,
+
+        /**
+         * Writes the event on the caller thread.
+         */
+        SYNC;
+    }
+
+    /**
+     * The asynchronous mode flag.
+     */
+    public static final boolean ASYNC;
+
+    /**
+     * The deferred write flag. The messages are written after the logging
+     * call in the asynchronous mode or in the tail mode of the
+     * {@link RequestLogBuffer} and must not depend on the mutable state.
+     */
+    public static final boolean DEFERRED;
+
+    /**
+     * The overflow policy.
+     */
+    public static final OverflowPolicy OVERFLOW;
+
+    /**
+     * The initial wait time of the producer thread in the {@link OverflowPolicy#BLOCK}
+     * mode in nanoseconds.
+     */
+    private static final long WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * The maximal wait time of the producer thread in the {@link OverflowPolicy#BLOCK}
+     * mode in nanoseconds.
+     */
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * The ring buffer.
+     */
+    private static final LogRingBuffer BUFFER;
+
+    /**
+     * The dropped events counter.
+     */
+    private static final AtomicLong DROPPED = new AtomicLong();
+
+    /**
+     * The consumer thread.
+     */
+    private static final Thread CONSUMER;
+
+    /**
+     * The running flag of the consumer thread.
+     */
+    private static volatile boolean running;
+
+    /**
+     * The idle flag of the consumer thread. The idle consumer is parked until
+     * the producer adds the next event.
+     */
+    private static volatile boolean idle;
+
+    static {
+        Properties prop = JelConfig.loadConfig();
+        ASYNC = JelConfig.getBooleanProperty("org.lorislab.jel.logger.async", false, prop);
+        DEFERRED = ASYNC || RequestLogBuffer.ENABLED;
+        OVERFLOW = getOverflowPolicy(prop.getProperty("org.lorislab.jel.logger.async.overflow", OverflowPolicy.SYNC.name()));
+        if (ASYNC) {
+            BUFFER = new LogRingBuffer(JelConfig.getIntProperty("org.lorislab.jel.logger.async.size", 8192, prop));
+            running = true;
+            CONSUMER = new Thread(LogWriter::consume, "jel-log-writer");
+            CONSUMER.setDaemon(true);
+            CONSUMER.start();
+        } else {
+            BUFFER = null;
+            CONSUMER = null;
+        }
+    }
+
+    /**
+     * The default constructor.
+     */
+    private LogWriter() {
+    }
+
+    /**
+     * Gets the overflow policy.
+     *
+     * @param value the configuration value.
+     * @return the overflow policy or {@link OverflowPolicy#SYNC} for the
+     * invalid value.
+     */
+    static OverflowPolicy getOverflowPolicy(String value) {
+        try {
+            return OverflowPolicy.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            LOGGER.warn("Invalid asynchronous log overflow policy {}, the policy {} is used.", value, OverflowPolicy.SYNC);
+            return OverflowPolicy.SYNC;
+        }
+    }
+
+    public static void trace(Logger logger, Object message) {
+        if (logger.isTraceEnabled()) {
+            write(logger, Level.TRACE, message, null);
+        }
+    }
+
+    public static void info(Logger logger, Object message) {
+        if (logger.isInfoEnabled()) {
+            write(logger, Level.INFO, message, null);
+        }
+    }
+
+    public static void warn(Logger logger, Object message) {
+        if (logger.isWarnEnabled()) {
+            write(logger, Level.WARN, message, null);
+        }
+    }
+
+    public static void error(Logger logger, Object message) {
+        error(logger, message, null);
+    }
+
+    public static void error(Logger logger, Object message, Throwable throwable) {
+        if (logger.isErrorEnabled()) {
+            write(logger, Level.ERROR, message, throwable);
+        }
+    }
+
+    /**
+     * Writes the log message. The caller is responsible for the log level
+     * check, the level methods of this class check the level before writing.
+     * In the tail mode the message of the request is kept in the
+     * {@link RequestLogBuffer} of the thread.
+     *
+     * @param logger the logger.
+     * @param level the log level.
+     * @param message the log message.
+     * @param throwable the exception.
+     */
+    public static void write(Logger logger, Level level, Object message, Throwable throwable) {
+        if (RequestLogBuffer.ENABLED && RequestLogBuffer.add(logger, level, message, throwable)) {
+            return;
+        }
+        if (!ASYNC || !running) {
+            LogEvent.write(logger, level, message, throwable);
+            return;
+        }
+        LogEvent event = new LogEvent(logger, level, message, throwable, MDC.get(RequestDataThreadHolder.LOG_ID));
+        if (BUFFER.offer(event)) {
+            wakeUp();
+            return;
+        }
+        switch (OVERFLOW) {
+            case DROP:
+                DROPPED.incrementAndGet();
+                break;
+            case BLOCK:
+                long wait = WAIT_NANOS;
+                boolean added = false;
+                while (running && !(added = BUFFER.offer(event))) {
+                    wakeUp();
+                    LockSupport.parkNanos(wait);
+                    wait = Math.min(wait * 2, MAX_WAIT_NANOS);
+                }
+                if (added) {
+                    wakeUp();
+                } else {
+                    // the consumer was stopped
+                    event.write();
+                }
+                break;
+            default:
+                event.write();
+        }
+    }
+
+    /**
+     * Wakes up the idle consumer thread.
+     */
+    private static void wakeUp() {
+        if (idle) {
+            LockSupport.unpark(CONSUMER);
+        }
+    }
+
+    /**
+     * Gets the number of dropped events.
+     *
+     * @return the number of dropped events.
+     */
+    public static long getDropped() {
+        return DROPPED.get();
+    }
+
+    /**
+     * Stops the consumer thread and writes the remaining events.
+     */
+    public static void shutdown() {
+        if (CONSUMER != null && running) {
+            running = false;
+            LockSupport.unpark(CONSUMER);
+            try {
+                CONSUMER.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            // the events added after the last drain of the consumer
+            if (!CONSUMER.isAlive()) {
+                drain();
+            }
+        }
+    }
+
+    /**
+     * The consumer loop.
+     */
+    private static void consume() {
+        long reported = 0;
+        while (running) {
+            LogEvent event = BUFFER.poll();
+            if (event != null) {
+                writeEvent(event);
+            } else {
+                long dropped = DROPPED.get();
+                if (dropped != reported) {
+                    LOGGER.warn("Asynchronous log buffer is full, {} log events dropped.", dropped - reported);
+                    reported = dropped;
+                }
+                idle = true;
+                // check the buffer again, the producer could add the event before the idle flag was set
+                if (running && BUFFER.isEmpty()) {
+                    LockSupport.park(LogWriter.class);
+                }
+                idle = false;
+            }
+        }
+        drain();
+    }
+
+    /**
+     * Writes the remaining events of the buffer. This method must be called
+     * only from one thread.
+     */
+    private static void drain() {
+        LogEvent event = BUFFER.poll();
+        while (event != null) {
+            writeEvent(event);
+            event = BUFFER.poll();
+        }
+    }
+
+    /**
+     * Writes the event in the consumer thread.
+     *
+     * @param event the log event.
+     */
+    private static void writeEvent(LogEvent event) {
+        try {
+            event.writeWithRequestId(RequestDataThreadHolder.LOG_ID);
+        } catch (Exception ex) {
+            LOGGER.error("Error writing the log event", ex);
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package org.lorislab.jee.logger;
 
+import org.lorislab.java.lang.SoftClassValue;
 import org.lorislab.jee.annotation.LoggerService;
 
 import javax.annotation.PostConstruct;
@@ -38,6 +39,28 @@ public class LoggerFormaterService {
 
     private final Map<Class, LoggerParameter> assignableFrom = new HashMap<>();
 
+    private final List<LoggerParameter> supported = new ArrayList<>();
+
+    /**
+     * The no logger parameter marker of the resolved class.
+     */
+    private static final LoggerParameter NONE = new LoggerParameter() {
+        @Override
+        public Object getObject(Object parameter) {
+            return parameter;
+        }
+    };
+
+    /**
+     * The resolved logger parameter per class.
+     */
+    private final SoftClassValue<LoggerParameter> resolved = new SoftClassValue<LoggerParameter>() {
+        @Override
+        protected LoggerParameter computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
     @Inject
     @Any
     private Instance<LoggerParameter> parameters;
@@ -47,9 +70,10 @@ public class LoggerFormaterService {
         initParameters(parameters);
     }
 
-    private void initParameters(Iterable<LoggerParameter> parameters) {
+    void initParameters(Iterable<LoggerParameter> parameters) {
         if (parameters != null) {
             for (LoggerParameter parameter : parameters) {
+                supported.add(parameter);
 
                 Class[] tmp = parameter.getClasses();
                 if (tmp != null) {
@@ -80,6 +104,65 @@ public class LoggerFormaterService {
         }
     }
 
+    /**
+     * Resolves the logger parameter of the class. The exact class mapping has
+     * the precedence, otherwise the most specific assignable type is used. If
+     * more unrelated types match, the logger parameter with the higher
+     * priority and then the type with the lower name is used. If no type
+     * matches the logger parameter which supports the class is used.
+     *
+     * @param clazz the parameter class.
+     * @return the logger parameter or {@link #NONE}.
+     */
+    private LoggerParameter resolve(Class<?> clazz) {
+        LoggerParameter result = classes.get(clazz);
+        if (result != null) {
+            return result;
+        }
+        Class<?> type = null;
+        for (Map.Entry<Class, LoggerParameter> e : assignableFrom.entrySet()) {
+            Class<?> key = e.getKey();
+            if (key.isAssignableFrom(clazz) && (type == null || isPreferred(key, e.getValue(), type, result))) {
+                type = key;
+                result = e.getValue();
+            }
+        }
+        if (result == null) {
+            for (LoggerParameter parameter : supported) {
+                if (parameter.isSupported(clazz) && (result == null || parameter.getPriority() > result.getPriority()
+                        || (parameter.getPriority() == result.getPriority() && parameter.getClass().getName().compareTo(result.getClass().getName()) < 0))) {
+                    result = parameter;
+                }
+            }
+        }
+        if (result == null) {
+            return NONE;
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the candidate type is preferred to the current type.
+     *
+     * @param candidate the candidate type.
+     * @param candidateParameter the candidate logger parameter.
+     * @param current the current type.
+     * @param currentParameter the current logger parameter.
+     * @return {@code true} if the candidate is preferred.
+     */
+    private static boolean isPreferred(Class<?> candidate, LoggerParameter candidateParameter, Class<?> current, LoggerParameter currentParameter) {
+        if (current.isAssignableFrom(candidate)) {
+            return true;
+        }
+        if (candidate.isAssignableFrom(current)) {
+            return false;
+        }
+        if (candidateParameter.getPriority() != currentParameter.getPriority()) {
+            return candidateParameter.getPriority() > currentParameter.getPriority();
+        }
+        return candidate.getName().compareTo(current.getName()) < 0;
+    }
+
     /**
      * Gets the method parameter value.
      *
@@ -89,20 +172,8 @@ public class LoggerFormaterService {
     private Object getParameterValue(Object parameter) {
         Object result = parameter;
         if (parameter != null) {
-            Class clazz = parameter.getClass();
-            LoggerParameter tmp = classes.get(clazz);
-
-            if (tmp == null) {
-                Iterator<Class> iter = assignableFrom.keySet().iterator();
-                while (iter.hasNext() && tmp == null) {
-                    Class<?> key = iter.next();
-                    if (key.isAssignableFrom(clazz)) {
-                        tmp = assignableFrom.get(key);
-                    }
-                }
-            }
-
-            if (tmp != null) {
+            LoggerParameter tmp = resolved.get(parameter.getClass());
+            if (tmp != NONE) {
                 result = tmp.getObject(parameter);
                 if (!(result instanceof String)) {
                     result = getParameterValue(result);
@@ -150,6 +221,126 @@ public class LoggerFormaterService {
         return "";
     }
 
+    /**
+     * Gets the list of string corresponding to the list of parameters.
+     *
+     * @param value    the list of parameters.
+     * @param excludes the excluded parameter names. The item contains the
+     *                 parameter name of the excluded parameter or {@code null}.
+     *                 The array could be {@code null} if no parameter is excluded.
+     * @return the list of string corresponding to the list of parameters.
+     */
+    public String getValuesString(Object[] value, String[] excludes) {
+        return getValuesString(value, excludes, 0, 0);
+    }
+
+    /**
+     * Gets the string corresponding to the list of parameters with the output
+     * budget. The rendering stops as soon as the budget is exhausted, the
+     * truncated value ends with {@code ...}.
+     *
+     * @param value    the list of parameters.
+     * @param excludes the excluded parameter names.
+     * @param maxParam the maximal number of characters of the parameter or
+     *                 {@code 0} for no limit.
+     * @param maxLine  the maximal number of characters of all parameters or
+     *                 {@code 0} for no limit.
+     * @return the string corresponding to the list of parameters.
+     */
+    public String getValuesString(Object[] value, String[] excludes, int maxParam, int maxLine) {
+        if (value != null && value.length > 0) {
+            StringBuilder sb = new StringBuilder();
+            int limit = maxLine > 0 ? maxLine : Integer.MAX_VALUE;
+            for (int index = 0; index < value.length; index++) {
+                if (index > 0) {
+                    sb.append(',');
+                }
+                int max = limit - sb.length();
+                if (max <= 0) {
+                    sb.append(LogValues.TRUNCATED);
+                    break;
+                }
+                if (maxParam > 0 && maxParam < max) {
+                    max = maxParam;
+                }
+                if (excludes != null && excludes[index] != null) {
+                    LogValues.append(sb, excludes[index], max);
+                } else {
+                    appendValue(sb, value[index], max);
+                }
+            }
+            return sb.toString();
+        }
+        return "";
+    }
+
+    /**
+     * Gets the deferred string corresponding to the list of parameters. The
+     * string is rendered only if the log message is written.
+     *
+     * @param value    the list of parameters.
+     * @param excludes the excluded parameter names.
+     * @return the deferred string corresponding to the list of parameters.
+     * @see #getValuesString(Object[], String[])
+     */
+    public Object getLazyValuesString(Object[] value, String[] excludes) {
+        return getLazyValuesString(value, excludes, 0, 0);
+    }
+
+    /**
+     * Gets the deferred string corresponding to the list of parameters with
+     * the output budget.
+     *
+     * @param value    the list of parameters.
+     * @param excludes the excluded parameter names.
+     * @param maxParam the maximal number of characters of the parameter.
+     * @param maxLine  the maximal number of characters of all parameters.
+     * @return the deferred string corresponding to the list of parameters.
+     * @see #getValuesString(Object[], String[], int, int)
+     */
+    public Object getLazyValuesString(Object[] value, String[] excludes, int maxParam, int maxLine) {
+        if (value == null || value.length == 0) {
+            return "";
+        }
+        return new LazyValue() {
+            @Override
+            protected String render() {
+                return getValuesString(value, excludes, maxParam, maxLine);
+            }
+        };
+    }
+
+    /**
+     * Gets the deferred string corresponding to the parameter. The string is
+     * rendered only if the log message is written.
+     *
+     * @param parameter the method parameter.
+     * @return the deferred string corresponding to the parameter.
+     * @see #getValue(Object)
+     */
+    public Object getLazyValue(Object parameter) {
+        return getLazyValue(parameter, 0);
+    }
+
+    /**
+     * Gets the deferred string corresponding to the parameter with the output
+     * budget.
+     *
+     * @param parameter the method parameter.
+     * @param maxLength the maximal number of characters or {@code 0} for no
+     *                  limit.
+     * @return the deferred string corresponding to the parameter.
+     * @see #getValue(Object, int)
+     */
+    public Object getLazyValue(Object parameter, int maxLength) {
+        return new LazyValue() {
+            @Override
+            protected String render() {
+                return getValue(parameter, maxLength);
+            }
+        };
+    }
+
     /**
      * Get the parameter log value.
      *
@@ -175,4 +366,49 @@ public class LoggerFormaterService {
         return "" + value;
     }
 
+    /**
+     * Gets the string corresponding to the parameter with the output budget.
+     *
+     * @param parameter the method parameter.
+     * @param maxLength the maximal number of characters or {@code 0} for no
+     *                  limit.
+     * @return the string corresponding to the parameter.
+     */
+    public String getValue(Object parameter, int maxLength) {
+        if (maxLength <= 0) {
+            return getValue(parameter);
+        }
+        StringBuilder sb = new StringBuilder();
+        appendValue(sb, parameter, maxLength);
+        return sb.toString();
+    }
+
+    /**
+     * Appends the string corresponding to the parameter. The budget is passed
+     * to the {@link LoggerParameter#appendTo(StringBuilder, Object, int)}, so
+     * the logger parameter stops the rendering at the budget.
+     *
+     * @param sb        the string builder.
+     * @param parameter the method parameter.
+     * @param maxLength the maximal number of characters.
+     */
+    private void appendValue(StringBuilder sb, Object parameter, int maxLength) {
+        if (parameter != null) {
+            LoggerParameter tmp = resolved.get(parameter.getClass());
+            if (tmp != NONE) {
+                if (tmp.appendTo(sb, parameter, maxLength)) {
+                    return;
+                }
+                Object result = tmp.getObject(parameter);
+                if (!(result instanceof String)) {
+                    appendValue(sb, result, maxLength);
+                    return;
+                }
+                LogValues.append(sb, result, maxLength);
+                return;
+            }
+        }
+        LogValues.append(sb, parameter, maxLength);
+    }
+
 }
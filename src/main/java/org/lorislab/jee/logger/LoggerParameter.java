@@ -34,6 +34,18 @@ public abstract class LoggerParameter {
     public Class getAssignableFrom() {
         return null;
     }
+
+    /**
+     * Checks if the logger parameter supports the class which does not match
+     * the {@link #getClasses()} and the {@link #getAssignableFrom()}, for
+     * example the annotated classes.
+     *
+     * @param clazz the parameter class.
+     * @return {@code true} if the class is supported.
+     */
+    public boolean isSupported(Class<?> clazz) {
+        return false;
+    }
     
     /**
      * Gets the log parameter.
@@ -42,4 +54,22 @@ public abstract class LoggerParameter {
      * @return the object value for the service parameter.
      */
     public abstract Object getObject(Object parameter);
+
+    /**
+     * Appends the log parameter to the string builder with the output budget.
+     * The logger parameter which renders large values overrides this method
+     * and stops the rendering as soon as the budget is exhausted, for example
+     * by {@link org.lorislab.java.lang.ReflectionUtil#appendTo(StringBuilder, Object, int, int)}.
+     * The default implementation returns {@code false} and the
+     * {@link #getObject(Object)} value is appended.
+     *
+     * @param sb the string builder.
+     * @param parameter the service parameter.
+     * @param maxLength the maximal number of characters or {@code 0} for no
+     * limit. The truncated value ends with {@link LogValues#TRUNCATED}.
+     * @return {@code true} if the parameter was appended.
+     */
+    public boolean appendTo(StringBuilder sb, Object parameter, int maxLength) {
+        return false;
+    }
 }
@@ -15,13 +15,11 @@
  */
 package org.lorislab.jee.logger;
 
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
-import java.lang.reflect.TypeVariable;
 import java.util.Map;
 import java.util.Map.Entry;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Named;
+import org.lorislab.java.lang.SoftClassValue;
 
 /**
  * The map instances log parameter.
@@ -32,6 +30,20 @@ import javax.inject.Named;
 @ApplicationScoped
 public class MapLoggerParameter extends LoggerParameter {
 
+    /**
+     * The key and value type of the map class. The item is {@code null} if
+     * the type is the type variable.
+     */
+    private static final SoftClassValue<Class<?>[]> TYPES = new SoftClassValue<Class<?>[]>() {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type) {
+            return new Class<?>[]{
+                CollectionLoggerParameter.getTypeArgument(type, 0),
+                CollectionLoggerParameter.getTypeArgument(type, 1)
+            };
+        }
+    };
+
     @Override
     public Class getAssignableFrom() {
         return Map.class;
@@ -52,33 +64,25 @@ public class MapLoggerParameter extends LoggerParameter {
         } else {
             sb.append(name).append(' ').append(tmp.size()).append(" of [");
 
-            String keyClassName = null;
-            String valueClassName = null;
-
-            if (parameter.getClass().getGenericSuperclass() instanceof ParameterizedType) {
-                ParameterizedType parameterizedType = (ParameterizedType) parameter.getClass().getGenericSuperclass();
-                
-                Type keyType = parameterizedType.getActualTypeArguments()[0];
-                if (!(keyType instanceof TypeVariable)) {
-                    keyClassName = keyType.getClass().getSimpleName();
-                }
-                
-                Type valueType = parameterizedType.getActualTypeArguments()[1];
-                if (!(valueType instanceof TypeVariable)) {
-                    keyClassName = valueType.getClass().getSimpleName();
-                }                
-            }
+            Class<?>[] types = TYPES.get(tmp.getClass());
+            Class<?> keyClass = types[0];
+            Class<?> valueClass = types[1];
 
+            if (keyClass == null || valueClass == null) {
                 Entry<?, ?> item = tmp.entrySet().iterator().next();
-                // get key class name
-                if (keyClassName == null && item.getKey() != null) {
-                    keyClassName = item.getKey().getClass().getSimpleName();
+                // get key class
+                if (keyClass == null && item.getKey() != null) {
+                    keyClass = item.getKey().getClass();
                 }
-                // get value class name
-                if (item.getValue() != null) {
-                    valueClassName = item.getValue().getClass().getSimpleName();
+                // get value class
+                if (valueClass == null && item.getValue() != null) {
+                    valueClass = item.getValue().getClass();
                 }
-            sb.append(keyClassName).append('+').append(valueClassName).append(']');
+            }
+            sb.append(keyClass == null ? null : keyClass.getSimpleName())
+                    .append('+')
+                    .append(valueClass == null ? null : valueClass.getSimpleName())
+                    .append(']');
         }
         return sb.toString();
     }
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.logger;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.lorislab.jee.Configuration;
+import org.lorislab.jee.cdi.util.JelConfig;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+/**
+ * The per-request log buffer for the tail-based logging. The log messages of
+ * the request are kept in the buffer and written only if the request failed
+ * (an error message was logged) or the request time is over the threshold.
+ * Otherwise only the last message of the request, which is the finished
+ * message of the outermost call, or nothing is written. The buffer keeps the
+ * last {@link #SIZE} messages and is reused by the next request of the thread.
+ *
+ * @author Andrej Petras
+ */
+public final class RequestLogBuffer {
+
+    /**
+     * The tail mode flag.
+     */
+    public static final boolean ENABLED;
+
+    /**
+     * The request time threshold in nanoseconds.
+     */
+    public static final long THRESHOLD;
+
+    /**
+     * The maximal number of the buffered messages of the request.
+     */
+    public static final int SIZE;
+
+    /**
+     * The summary flag. If set the last message of the successful request is
+     * written.
+     */
+    public static final boolean SUMMARY;
+
+    /**
+     * The buffer of the thread.
+     */
+    private static final ThreadLocal<RequestLogBuffer> BUFFER = ThreadLocal.withInitial(RequestLogBuffer::new);
+
+    static {
+        Properties prop = JelConfig.loadConfig();
+        ENABLED = JelConfig.getBooleanProperty("org.lorislab.jel.logger.tail", false, prop);
+        THRESHOLD = TimeUnit.MILLISECONDS.toNanos(JelConfig.getLongProperty("org.lorislab.jel.logger.tail.threshold", 0, prop));
+        SIZE = Math.max(1, JelConfig.getIntProperty("org.lorislab.jel.logger.tail.size", 64, prop));
+        SUMMARY = JelConfig.getBooleanProperty("org.lorislab.jel.logger.tail.summary", true, prop);
+    }
+
+    /**
+     * The maximal number of the buffered messages.
+     */
+    private final int size;
+
+    /**
+     * The request time threshold in nanoseconds.
+     */
+    private final long threshold;
+
+    /**
+     * The summary flag.
+     */
+    private final boolean summary;
+
+    /**
+     * The loggers.
+     */
+    private final Logger[] loggers;
+
+    /**
+     * The log levels.
+     */
+    private final Level[] levels;
+
+    /**
+     * The log messages.
+     */
+    private final Object[] messages;
+
+    /**
+     * The exceptions.
+     */
+    private final Throwable[] throwables;
+
+    /**
+     * The number of the messages of the request.
+     */
+    private int count;
+
+    /**
+     * The active flag.
+     */
+    private boolean active;
+
+    /**
+     * The failed request flag.
+     */
+    private boolean failed;
+
+    /**
+     * The default constructor.
+     */
+    private RequestLogBuffer() {
+        this(SIZE, THRESHOLD, SUMMARY);
+    }
+
+    /**
+     * The constructor.
+     *
+     * @param size the maximal number of the buffered messages.
+     * @param threshold the request time threshold in nanoseconds.
+     * @param summary the summary flag.
+     */
+    RequestLogBuffer(int size, long threshold, boolean summary) {
+        this.size = size;
+        this.threshold = threshold;
+        this.summary = summary;
+        this.loggers = new Logger[size];
+        this.levels = new Level[size];
+        this.messages = new Object[size];
+        this.throwables = new Throwable[size];
+    }
+
+    /**
+     * Starts buffering the log messages of the request in the current thread.
+     */
+    public static void begin() {
+        if (ENABLED) {
+            BUFFER.get().start();
+        }
+    }
+
+    /**
+     * Adds the log message to the buffer of the current thread.
+     *
+     * @param logger the logger.
+     * @param level the log level.
+     * @param message the log message.
+     * @param throwable the exception.
+     * @return {@code true} if the message was buffered, {@code false} if there
+     * is no buffered request in the current thread.
+     */
+    static boolean add(Logger logger, Level level, Object message, Throwable throwable) {
+        return BUFFER.get().offer(logger, level, message, throwable);
+    }
+
+    /**
+     * Finishes the request in the current thread and writes the buffered
+     * messages if the request failed or the request time is over the
+     * threshold.
+     *
+     * @param nanos the request time in nanoseconds.
+     * @param requestId the request id.
+     */
+    public static void end(long nanos, String requestId) {
+        if (ENABLED) {
+            BUFFER.get().finish(nanos, requestId);
+        }
+    }
+
+    /**
+     * Starts buffering the log messages of the request.
+     */
+    void start() {
+        reset();
+        active = true;
+    }
+
+    /**
+     * Adds the log message to the buffer.
+     *
+     * @param logger the logger.
+     * @param level the log level.
+     * @param message the log message.
+     * @param throwable the exception.
+     * @return {@code true} if the message was buffered, {@code false} if the
+     * buffer is not active.
+     */
+    boolean offer(Logger logger, Level level, Object message, Throwable throwable) {
+        if (!active) {
+            return false;
+        }
+        int index = count % size;
+        loggers[index] = logger;
+        levels[index] = level;
+        messages[index] = message;
+        throwables[index] = throwable;
+        count++;
+        if (level == Level.ERROR) {
+            failed = true;
+        }
+        return true;
+    }
+
+    /**
+     * Finishes the request and writes the buffered messages if the request
+     * failed or the request time is over the threshold.
+     *
+     * @param nanos the request time in nanoseconds.
+     * @param requestId the request id.
+     */
+    void finish(long nanos, String requestId) {
+        if (!active) {
+            return;
+        }
+        active = false;
+        try {
+            if (count == 0) {
+                return;
+            }
+            int last = (count - 1) % size;
+            if (failed || (threshold > 0 && nanos >= threshold)) {
+                int start = Math.max(0, count - size);
+                if (start > 0) {
+                    LogWriter.write(loggers[start % size], Level.WARN, Configuration.msgTailDiscarded(requestId, start, size), null);
+                }
+                for (int i = start; i < count; i++) {
+                    int index = i % size;
+                    LogWriter.write(loggers[index], levels[index], messages[index], throwables[index]);
+                }
+            } else if (summary) {
+                LogWriter.write(loggers[last], levels[last], messages[last], throwables[last]);
+            }
+        } finally {
+            reset();
+        }
+    }
+
+    /**
+     * Resets the buffer and releases the buffered messages.
+     */
+    private void reset() {
+        int max = Math.min(count, size);
+        for (int i = 0; i < max; i++) {
+            loggers[i] = null;
+            levels[i] = null;
+            messages[i] = null;
+            throwables[i] = null;
+        }
+        count = 0;
+        failed = false;
+        active = false;
+    }
+}
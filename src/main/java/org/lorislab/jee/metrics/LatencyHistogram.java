@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The lock-free latency histogram with the log-linear buckets. Each power of
+ * two range is split to the {@link #SUB_BUCKETS} linear sub-buckets, which
+ * gives the relative error of the value lower than 12.5%. The counters are
+ * striped by the thread to reduce the contention and merged on read.
+ *
+ * @author Andrej Petras
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The number of sub-bucket bits.
+     */
+    private static final int SUB_BITS = 3;
+
+    /**
+     * The number of sub-buckets of each power of two range.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /**
+     * The highest tracked power of two (about 18 minutes in nanoseconds).
+     * Bigger values are counted in the last bucket.
+     */
+    private static final int MAX_EXPONENT = 40;
+
+    /**
+     * The number of buckets.
+     */
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 1) * SUB_BUCKETS + SUB_BUCKETS;
+
+    /**
+     * The number of stripes.
+     */
+    private static final int STRIPES = 4;
+
+    /**
+     * The striped bucket counters.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * BUCKETS);
+
+    /**
+     * Records the value.
+     *
+     * @param value the value in nanoseconds.
+     */
+    public void record(long value) {
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        counts.incrementAndGet(stripe * BUCKETS + index(value));
+    }
+
+    /**
+     * Gets the merged bucket counts.
+     *
+     * @return the bucket counts.
+     */
+    public long[] snapshot() {
+        long[] result = new long[BUCKETS];
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            int offset = stripe * BUCKETS;
+            for (int i = 0; i < BUCKETS; i++) {
+                result[i] += counts.get(offset + i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resets the histogram.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    /**
+     * Gets the percentile value of the bucket counts.
+     *
+     * @param snapshot the bucket counts.
+     * @param percentile the percentile {@code 0 - 100}.
+     * @return the upper bound of the bucket which contains the percentile or
+     * {@code 0} if the histogram is empty.
+     */
+    public static long percentile(long[] snapshot, double percentile) {
+        long total = 0;
+        for (long count : snapshot) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * Math.min(100d, Math.max(0d, percentile)) / 100d);
+        rank = Math.max(1, rank);
+        long sum = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            sum += snapshot[i];
+            if (sum >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(snapshot.length - 1);
+    }
+
+    /**
+     * Gets the bucket index of the value.
+     *
+     * @param value the value.
+     * @return the bucket index.
+     */
+    static int index(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) Math.max(0, value);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int shift = exponent - SUB_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Gets the highest value of the bucket.
+     *
+     * @param index the bucket index.
+     * @return the highest value of the bucket.
+     */
+    static long upperBound(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long mantissa = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
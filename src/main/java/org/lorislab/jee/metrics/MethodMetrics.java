@@ -0,0 +1,318 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The service method metrics. The invocation latencies are recorded in the
+ * lock-free histogram with the success and failure counters.
+ *
+ * @author Andrej Petras
+ */
+public class MethodMetrics implements MethodMetricsMXBean {
+
+    /**
+     * The nanoseconds in one millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    /**
+     * The service class name.
+     */
+    private final String className;
+
+    /**
+     * The service method.
+     */
+    private final String method;
+
+    /**
+     * The latency histogram.
+     */
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    /**
+     * The success counter.
+     */
+    private final LongAdder success = new LongAdder();
+
+    /**
+     * The failure counter.
+     */
+    private final LongAdder failure = new LongAdder();
+
+    /**
+     * The slow invocations counter.
+     */
+    private final LongAdder slow = new LongAdder();
+
+    /**
+     * The total time in nanoseconds.
+     */
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * The maximal time in nanoseconds.
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * The number of the invocations with the CPU time.
+     */
+    private final LongAdder cpuCount = new LongAdder();
+
+    /**
+     * The total CPU time in nanoseconds.
+     */
+    private final LongAdder cpuTotal = new LongAdder();
+
+    /**
+     * The number of the invocations with the allocated bytes.
+     */
+    private final LongAdder allocatedCount = new LongAdder();
+
+    /**
+     * The total allocated bytes.
+     */
+    private final LongAdder allocatedTotal = new LongAdder();
+
+    /**
+     * The default constructor.
+     *
+     * @param className the service class name.
+     * @param method the service method.
+     */
+    public MethodMetrics(String className, String method) {
+        this.className = className;
+        this.method = method;
+    }
+
+    /**
+     * Records the invocation.
+     *
+     * @param nanos the invocation time in nanoseconds.
+     * @param failed the failed invocation flag.
+     */
+    public void record(long nanos, boolean failed) {
+        histogram.record(nanos);
+        total.add(nanos);
+        max.accumulate(nanos);
+        if (failed) {
+            failure.increment();
+        } else {
+            success.increment();
+        }
+    }
+
+    /**
+     * Records the thread CPU time and allocated bytes of the invocation.
+     *
+     * @param cpuTime the CPU time in nanoseconds or {@code -1} if not
+     * measured.
+     * @param allocatedBytes the allocated bytes or {@code -1} if not measured.
+     */
+    public void recordUsage(long cpuTime, long allocatedBytes) {
+        if (cpuTime >= 0) {
+            cpuTotal.add(cpuTime);
+            cpuCount.increment();
+        }
+        if (allocatedBytes >= 0) {
+            allocatedTotal.add(allocatedBytes);
+            allocatedCount.increment();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getCount() {
+        return success.sum() + failure.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getSuccessCount() {
+        return success.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getFailureCount() {
+        return failure.sum();
+    }
+
+    /**
+     * Increments the slow invocations counter.
+     */
+    public void slow() {
+        slow.increment();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getSlowCount() {
+        return slow.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getErrorRate() {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        return (double) failure.sum() / count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getMeanMillis() {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        return total.sum() / NANOS_PER_MILLI / count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getMaxMillis() {
+        return max.get() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getP50Millis() {
+        return getPercentileMillis(50);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getP90Millis() {
+        return getPercentileMillis(90);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getP99Millis() {
+        return getPercentileMillis(99);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getP999Millis() {
+        return getPercentileMillis(99.9);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getMeanCpuMillis() {
+        long count = cpuCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+        return cpuTotal.sum() / NANOS_PER_MILLI / count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMeanAllocatedBytes() {
+        long count = allocatedCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+        return allocatedTotal.sum() / count;
+    }
+
+    /**
+     * Gets the percentile of the invocation time in milliseconds.
+     *
+     * @param percentile the percentile {@code 0 - 100}.
+     * @return the percentile of the invocation time in milliseconds.
+     */
+    public double getPercentileMillis(double percentile) {
+        return LatencyHistogram.percentile(histogram.snapshot(), percentile) / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Gets the latency histogram.
+     *
+     * @return the latency histogram.
+     */
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        histogram.reset();
+        success.reset();
+        failure.reset();
+        slow.reset();
+        total.reset();
+        max.reset();
+        cpuCount.reset();
+        cpuTotal.reset();
+        allocatedCount.reset();
+        allocatedTotal.reset();
+    }
+}
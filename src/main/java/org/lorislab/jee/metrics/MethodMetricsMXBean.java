@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.metrics;
+
+/**
+ * The service method metrics management interface.
+ *
+ * @author Andrej Petras
+ */
+public interface MethodMetricsMXBean {
+
+    String getClassName();
+
+    String getMethod();
+
+    long getCount();
+
+    long getSuccessCount();
+
+    long getFailureCount();
+
+    /**
+     * Gets the number of the invocations over the slow or threshold time.
+     *
+     * @return the number of the slow invocations.
+     */
+    long getSlowCount();
+
+    /**
+     * Gets the ratio of the failed invocations.
+     *
+     * @return the error rate {@code 0 - 1}.
+     */
+    double getErrorRate();
+
+    double getMeanMillis();
+
+    double getMaxMillis();
+
+    double getP50Millis();
+
+    double getP90Millis();
+
+    double getP99Millis();
+
+    double getP999Millis();
+
+    /**
+     * Gets the mean thread CPU time of the invocation. The CPU time is
+     * measured if the {@code org.lorislab.jel.logger.cpu} is enabled.
+     *
+     * @return the mean CPU time in milliseconds.
+     */
+    double getMeanCpuMillis();
+
+    /**
+     * Gets the mean allocated bytes of the invocation. The allocated bytes
+     * are measured if the {@code org.lorislab.jel.logger.cpu} is enabled.
+     *
+     * @return the mean allocated bytes.
+     */
+    long getMeanAllocatedBytes();
+
+    /**
+     * Resets the metrics.
+     */
+    void reset();
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.lorislab.jee.cdi.util.JelConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The registry of the service method metrics. The metrics are registered in
+ * the platform MBean server with the object name
+ * {@code org.lorislab.jel:type=ServiceMethod,class=<class>,method=<method>}.
+ * The metrics are disabled by default and enabled by the configuration
+ * {@code org.lorislab.jel.metrics=true}, the JMX registration by
+ * {@code org.lorislab.jel.metrics.jmx=true}.
+ *
+ * @author Andrej Petras
+ */
+public final class MetricsRegistry {
+
+    /**
+     * The logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsRegistry.class);
+
+    /**
+     * The JMX domain.
+     */
+    public static final String DOMAIN = "org.lorislab.jel";
+
+    /**
+     * The metrics enabled flag.
+     */
+    public static final boolean ENABLED;
+
+    /**
+     * The JMX enabled flag.
+     */
+    public static final boolean JMX;
+
+    /**
+     * The registered metrics.
+     */
+    private static final Map<ObjectName, MethodMetrics> METRICS = new ConcurrentHashMap<>();
+
+    static {
+        ENABLED = JelConfig.getBooleanProperty("org.lorislab.jel.metrics", false);
+        JMX = JelConfig.getBooleanProperty("org.lorislab.jel.metrics.jmx", false);
+    }
+
+    /**
+     * The default constructor.
+     */
+    private MetricsRegistry() {
+    }
+
+    /**
+     * Creates and registers the service method metrics.
+     *
+     * @param className the service class name.
+     * @param method the service method.
+     * @return the service method metrics or {@code null} if the metrics are
+     * disabled.
+     */
+    public static MethodMetrics create(String className, String method) {
+        if (!ENABLED) {
+            return null;
+        }
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":type=ServiceMethod,class=" + ObjectName.quote(className) + ",method=" + ObjectName.quote(method));
+            return METRICS.computeIfAbsent(name, n -> register(n, new MethodMetrics(className, method)));
+        } catch (Exception ex) {
+            LOGGER.warn("Error create the metrics for the {}:{}", className, method, ex);
+            return new MethodMetrics(className, method);
+        }
+    }
+
+    /**
+     * Gets all registered metrics.
+     *
+     * @return the registered metrics.
+     */
+    public static Iterable<MethodMetrics> getMetrics() {
+        return METRICS.values();
+    }
+
+    /**
+     * Unregisters all metrics from the MBean server.
+     */
+    public static void shutdown() {
+        if (JMX) {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            for (ObjectName name : METRICS.keySet()) {
+                try {
+                    if (server.isRegistered(name)) {
+                        server.unregisterMBean(name);
+                    }
+                } catch (Exception ex) {
+                    LOGGER.warn("Error unregister the metrics {}", name, ex);
+                }
+            }
+        }
+        METRICS.clear();
+    }
+
+    /**
+     * Registers the metrics in the MBean server.
+     *
+     * @param name the object name.
+     * @param metrics the metrics.
+     * @return the metrics.
+     */
+    private static MethodMetrics register(ObjectName name, MethodMetrics metrics) {
+        if (JMX) {
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                // the old metrics of the redeployed application
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+                server.registerMBean(metrics, name);
+            } catch (Exception ex) {
+                LOGGER.warn("Error register the metrics {}", name, ex);
+            }
+        }
+        return metrics;
+    }
+}
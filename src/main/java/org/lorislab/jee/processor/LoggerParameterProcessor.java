@@ -0,0 +1,286 @@
+/*
+ * Copyright 2016 Andrej Petras.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import org.lorislab.jee.annotation.LoggerFormat;
+
+/**
+ * The annotation processor which generates the {@code LoggerParameter} bean
+ * for the classes annotated with the {@link LoggerFormat}. The generated
+ * class {@code <Class>LoggerParameter} is in the package of the annotated
+ * class and is discovered as the application scoped CDI bean. The logger
+ * parameter matches the annotated class and its subclasses, unless the
+ * subclass has its own logger parameter. The JPA entity is matched only by
+ * the exact class, the fields of the entity proxy are not initialized and the
+ * proxy is logged by the {@code EntityLoggerParameter}.
+ *
+ * @author Andrej Petras
+ */
+@SupportedAnnotationTypes("org.lorislab.jee.annotation.LoggerFormat")
+public class LoggerParameterProcessor extends AbstractProcessor {
+
+    /**
+     * The generated class suffix.
+     */
+    private static final String SUFFIX = "LoggerParameter";
+
+    /**
+     * The JPA entity annotation.
+     */
+    private static final String ENTITY = "javax.persistence.Entity";
+
+    /**
+     * The JPA mapped superclass annotation.
+     */
+    private static final String MAPPED_SUPERCLASS = "javax.persistence.MappedSuperclass";
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(LoggerFormat.class)) {
+            if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "The @LoggerFormat is supported only for the not abstract class.", element);
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            try {
+                generate(type);
+            } catch (IOException ex) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Error generating the logger parameter: " + ex.getMessage(), type);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generates the logger parameter for the type.
+     *
+     * @param type the annotated type.
+     * @throws IOException if the method fails.
+     */
+    private void generate(TypeElement type) throws IOException {
+        LoggerFormat format = type.getAnnotation(LoggerFormat.class);
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String typeName = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+        String relativeName = packageName.isEmpty() ? typeName : typeName.substring(packageName.length() + 1);
+        String className = relativeName.replace('.', '_') + SUFFIX;
+
+        List<String> statements = new ArrayList<>();
+        List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type));
+        boolean first = true;
+        for (VariableElement field : getFields(type)) {
+            LoggerFormat.Field fieldFormat = field.getAnnotation(LoggerFormat.Field.class);
+            if ((fieldFormat == null && format.annotatedOnly()) || (fieldFormat != null && fieldFormat.exclude())) {
+                continue;
+            }
+            String name = field.getSimpleName().toString();
+            String prefix = (first ? "" : ",") + name + "=";
+            if (fieldFormat != null && fieldFormat.mask()) {
+                statements.add(append("\"" + prefix + "***\"", -1));
+                first = false;
+                continue;
+            }
+            String accessor = getAccessor(field, methods, pkg);
+            if (accessor == null) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "The field " + name + " is not accessible and has no getter method, the field is not logged.", field);
+                continue;
+            }
+            statements.add(append("\"" + prefix + "\"", -1));
+            statements.add(append("value." + accessor, fieldFormat == null ? -1 : fieldFormat.maxLength()));
+            first = false;
+        }
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? className : packageName + '.' + className, type);
+        try (PrintWriter out = new PrintWriter(file.openWriter())) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("import javax.annotation.processing.Generated;");
+            out.println("import javax.enterprise.context.ApplicationScoped;");
+            out.println("import org.lorislab.jee.logger.LogValues;");
+            out.println("import org.lorislab.jee.logger.LoggerParameter;");
+            out.println();
+            out.println("/**");
+            out.println(" * The generated logger parameter of the {@link " + typeName + "}.");
+            out.println(" */");
+            out.println("@ApplicationScoped");
+            out.println("@Generated(\"" + LoggerParameterProcessor.class.getName() + "\")");
+            out.println("public class " + className + " extends LoggerParameter {");
+            out.println();
+            out.println("    @Override");
+            out.println("    public Class[] getClasses() {");
+            out.println("        return new Class[]{" + typeName + ".class};");
+            out.println("    }");
+            if (!isEntity(type)) {
+                out.println();
+                out.println("    @Override");
+                out.println("    public Class getAssignableFrom() {");
+                out.println("        return " + typeName + ".class;");
+                out.println("    }");
+            }
+            out.println();
+            out.println("    @Override");
+            out.println("    public Object getObject(Object parameter) {");
+            out.println("        StringBuilder sb = new StringBuilder(64);");
+            out.println("        appendTo(sb, parameter, 0);");
+            out.println("        return sb.toString();");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public boolean appendTo(StringBuilder sb, Object parameter, int maxLength) {");
+            out.println("        " + typeName + " value = (" + typeName + ") parameter;");
+            out.println("        int limit = LogValues.limit(sb, maxLength, " + format.maxLength() + ");");
+            out.println("        " + append("\"" + type.getSimpleName() + "[\"", -1));
+            for (String statement : statements) {
+                out.println("        " + statement);
+            }
+            out.println("        LogValues.append(sb, \"]\", -1, limit);");
+            out.println("        return true;");
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    /**
+     * Checks if the type is the JPA entity or mapped superclass.
+     *
+     * @param type the type.
+     * @return {@code true} if the type is the JPA entity.
+     */
+    private static boolean isEntity(TypeElement type) {
+        for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            String name = annotation.getAnnotationType().toString();
+            if (ENTITY.equals(name) || MAPPED_SUPERCLASS.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the statement which appends the value and stops the rendering
+     * if the output budget is exhausted.
+     *
+     * @param expression the value expression.
+     * @param maxLength the maximal number of characters of the value.
+     * @return the statement.
+     */
+    private static String append(String expression, int maxLength) {
+        return "if (!LogValues.append(sb, " + expression + ", " + maxLength + ", limit)) { return true; }";
+    }
+
+    /**
+     * Gets the not static fields of the type and the superclasses.
+     *
+     * @param type the type.
+     * @return the list of fields.
+     */
+    private List<VariableElement> getFields(TypeElement type) {
+        List<VariableElement> result = new ArrayList<>();
+        TypeElement tmp = type;
+        while (tmp != null && !tmp.getQualifiedName().contentEquals(Object.class.getName())) {
+            for (VariableElement field : ElementFilter.fieldsIn(tmp.getEnclosedElements())) {
+                if (!field.getModifiers().contains(Modifier.STATIC)) {
+                    result.add(field);
+                }
+            }
+            TypeMirror superclass = tmp.getSuperclass();
+            tmp = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) processingEnv.getTypeUtils().asElement(superclass) : null;
+        }
+        return result;
+    }
+
+    /**
+     * Gets the field accessor expression. The field is read directly if it is
+     * accessible from the generated class, otherwise by the getter method.
+     *
+     * @param field the field.
+     * @param methods the methods of the type.
+     * @param pkg the package of the generated class.
+     * @return the accessor expression or {@code null} if the field is not
+     * accessible.
+     */
+    private String getAccessor(VariableElement field, List<ExecutableElement> methods, PackageElement pkg) {
+        String name = field.getSimpleName().toString();
+        if (isAccessible(field, pkg)) {
+            return name;
+        }
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (ExecutableElement method : methods) {
+            String methodName = method.getSimpleName().toString();
+            if (method.getParameters().isEmpty()
+                    && !method.getModifiers().contains(Modifier.STATIC)
+                    && (methodName.equals("get" + suffix) || (methodName.equals("is" + suffix) && field.asType().getKind() == TypeKind.BOOLEAN))
+                    && processingEnv.getTypeUtils().isSameType(method.getReturnType(), field.asType())
+                    && isAccessible(method, pkg)) {
+                return methodName + "()";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks if the element is accessible from the package.
+     *
+     * @param element the field or method.
+     * @param pkg the package.
+     * @return {@code true} if the element is accessible.
+     */
+    private boolean isAccessible(Element element, PackageElement pkg) {
+        Set<Modifier> modifiers = element.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        return pkg.equals(processingEnv.getElementUtils().getPackageOf(element));
+    }
+}
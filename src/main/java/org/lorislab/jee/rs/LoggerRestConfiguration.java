@@ -15,10 +15,13 @@
  */
 package org.lorislab.jee.rs;
 
-import java.text.MessageFormat;
 import java.util.Properties;
+import org.lorislab.java.text.MessageTemplate;
 import org.lorislab.jee.Configuration;
 import org.lorislab.jee.cdi.util.JelConfig;
+import org.lorislab.jee.interceptor.ElapsedTime;
+import org.lorislab.jee.interceptor.RequestData;
+import org.lorislab.jee.logger.JsonMessage;
 
 /**
  *
@@ -26,22 +29,22 @@ import org.lorislab.jee.cdi.util.JelConfig;
  */
 public final class LoggerRestConfiguration {
     
-    private static final MessageFormat MESSAGE_START;
-    private static final MessageFormat MESSAGE_SUCCEED;
-    private static final MessageFormat MESSAGE_CLIENT_START;
-    private static final MessageFormat MESSAGE_CLIENT_SUCCEED;
-    private static final MessageFormat MESSAGE_EXCEPTION;
+    private static final MessageTemplate MESSAGE_START;
+    private static final MessageTemplate MESSAGE_SUCCEED;
+    private static final MessageTemplate MESSAGE_CLIENT_START;
+    private static final MessageTemplate MESSAGE_CLIENT_SUCCEED;
+    private static final MessageTemplate MESSAGE_EXCEPTION;
 
     public static final boolean CLIENT_HEADER_PRINCIPAL;
     public static final boolean CLIENT_HEADER_HOST;
     
     static {
         Properties prop = JelConfig.loadConfig();
-        MESSAGE_START = new MessageFormat( prop.getProperty("org.lorislab.jel.logger.rs.start", "{0}@{1} {2} {3} started."));
-        MESSAGE_SUCCEED = new MessageFormat(prop.getProperty("org.lorislab.jel.logger.rs.succeed", "{0}@{1} {2} {3} [{4}s] finished with [{5}]."));
-        MESSAGE_CLIENT_START = new MessageFormat(prop.getProperty("org.lorislab.jel.logger.rs.client.start", "[outgoing] {0} {1} {2} started."));
-        MESSAGE_CLIENT_SUCCEED = new MessageFormat(prop.getProperty("org.lorislab.jel.logger.rs.client.start", "[incomming] {0} {1} {2} finished in [{3}s] with [{4}]."));
-        MESSAGE_EXCEPTION = new MessageFormat(prop.getProperty("org.lorislab.jel.logger.rs.exception", "{0}@{1} {2} {3} threw exception [{4}]."));
+        MESSAGE_START = MessageTemplate.compile(prop.getProperty("org.lorislab.jel.logger.rs.start", "{0}@{1} {2} {3} started."));
+        MESSAGE_SUCCEED = MessageTemplate.compile(prop.getProperty("org.lorislab.jel.logger.rs.succeed", "{0}@{1} {2} {3} [{4}s] finished with [{5}]."));
+        MESSAGE_CLIENT_START = MessageTemplate.compile(prop.getProperty("org.lorislab.jel.logger.rs.client.start", "[outgoing] {0} {1} {2} started."));
+        MESSAGE_CLIENT_SUCCEED = MessageTemplate.compile(prop.getProperty("org.lorislab.jel.logger.rs.client.succeed", "[incomming] {0} {1} {2} finished in [{3}s] with [{4}]."));
+        MESSAGE_EXCEPTION = MessageTemplate.compile(prop.getProperty("org.lorislab.jel.logger.rs.exception", "{0}@{1} {2} {3} threw exception [{4}]."));
         CLIENT_HEADER_PRINCIPAL = JelConfig.getBooleanProperty("org.lorislab.jel.logger.rs.client.header.principal", true, prop);
         CLIENT_HEADER_HOST = JelConfig.getBooleanProperty("org.lorislab.jel.logger.rs.client.header.host", true, prop);        
     }
@@ -68,4 +71,92 @@ public final class LoggerRestConfiguration {
     public static Object msgClientStart(Object... parameters) {
         return Configuration.msg(MESSAGE_CLIENT_START, parameters);
     }
+
+    /**
+     * Creates the REST request start message.
+     *
+     * @param data the request data.
+     * @param method the HTTP method.
+     * @param uri the request URI.
+     * @return the log message.
+     */
+    public static Object msgRequestStart(RequestData data, String method, Object uri) {
+        if (Configuration.JSON_FORMAT) {
+            return JsonMessage.rest(JsonMessage.REST, JsonMessage.STARTED, data.getId(), data.getClientPrincipal(), method, uri, -1, data.getClientHost());
+        }
+        return msgStart(data.getClientPrincipal(), data.getClientHost(), method, uri);
+    }
+
+    /**
+     * Creates the REST request finished message.
+     *
+     * @param data the request data.
+     * @param method the HTTP method.
+     * @param uri the request URI.
+     * @param time the request time.
+     * @param status the HTTP status code.
+     * @param successful the successful status flag.
+     * @return the log message.
+     */
+    public static Object msgRequestFinished(RequestData data, String method, Object uri, ElapsedTime time, int status, boolean successful) {
+        if (Configuration.JSON_FORMAT) {
+            return JsonMessage.rest(JsonMessage.REST, status, data.getId(), data.getClientPrincipal(), method, uri, time.getNanos(), data.getClientHost());
+        }
+        if (successful) {
+            return msgClientSucceed(data.getClientPrincipal(), data.getClientHost(), method, uri, time, status);
+        }
+        return msgSucceed(data.getClientPrincipal(), data.getClientHost(), method, uri, time, status);
+    }
+
+    /**
+     * Creates the REST request exception message.
+     *
+     * @param data the request data.
+     * @param method the resource method name.
+     * @param uri the request URI.
+     * @param exception the exception.
+     * @param stackTrace the stack trace flag. The stack trace is written in
+     * the JSON message, the text message is followed by the stack trace of
+     * the logger.
+     * @return the log message.
+     */
+    public static Object msgRequestException(RequestData data, String method, Object uri, Throwable exception, boolean stackTrace) {
+        if (Configuration.JSON_FORMAT) {
+            return JsonMessage.rest(JsonMessage.REST, JsonMessage.EXCEPTION, data.getId(), data.getClientPrincipal(), method, uri, -1, data.getClientHost())
+                    .error(exception, null, null, stackTrace);
+        }
+        return msgException(data.getClientPrincipal(), data.getClientHost(), method, uri, exception.getClass().getSimpleName());
+    }
+
+    /**
+     * Creates the REST client request start message.
+     *
+     * @param data the request data.
+     * @param method the HTTP method.
+     * @param uri the request URI.
+     * @return the log message.
+     */
+    public static Object msgClientRequestStart(RequestData data, String method, Object uri) {
+        if (Configuration.JSON_FORMAT) {
+            return JsonMessage.rest(JsonMessage.CLIENT, JsonMessage.STARTED, data.getId(), data.getPrincipal(), method, uri, -1, null);
+        }
+        return msgClientStart(data.getPrincipal(), method, uri);
+    }
+
+    /**
+     * Creates the REST client request finished message.
+     *
+     * @param data the request data.
+     * @param method the HTTP method.
+     * @param uri the request URI.
+     * @param time the request time.
+     * @param status the HTTP status code.
+     * @return the log message.
+     */
+    public static Object msgClientRequestFinished(RequestData data, String method, Object uri, ElapsedTime time, int status) {
+        if (Configuration.JSON_FORMAT) {
+            return JsonMessage.rest(JsonMessage.CLIENT, status, data.getId(), data.getPrincipal(), method, uri, time.getNanos(), null);
+        }
+        return msgClientSucceed(data.getPrincipal(), method, uri, time, status);
+    }
 }
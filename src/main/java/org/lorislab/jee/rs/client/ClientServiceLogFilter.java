@@ -22,12 +22,13 @@ import javax.ws.rs.client.ClientRequestFilter;
 import javax.ws.rs.client.ClientResponseContext;
 import javax.ws.rs.client.ClientResponseFilter;
 import javax.ws.rs.ext.Provider;
-import org.lorislab.jee.interceptor.InterceptorUtil;
+import org.lorislab.jee.interceptor.ElapsedTime;
 import org.lorislab.jee.interceptor.RequestDataThreadHolder;
 import org.lorislab.jee.annotation.LoggerService;
 import org.lorislab.jee.interceptor.RequestData;
 import org.lorislab.jee.logger.HostNameService;
 import org.lorislab.jee.rs.interceptor.RequestDataHeaderProperties;
+import org.lorislab.jee.logger.LogWriter;
 import org.lorislab.jee.rs.LoggerRestConfiguration;
 
 import org.slf4j.Logger;
@@ -45,6 +46,8 @@ public class ClientServiceLogFilter implements ClientRequestFilter, ClientRespon
     private static final long serialVersionUID = 1263952252995068153L;
 
     private static final String CLEAR_REQUEST = "clear_request_data";
+
+    private static final String START_TIME = "jel_start_time";
     
     private static final Logger LOGGER = LoggerFactory.getLogger(ClientServiceLogFilter.class);
 
@@ -54,8 +57,9 @@ public class ClientServiceLogFilter implements ClientRequestFilter, ClientRespon
         if (requestContext.getProperty(CLEAR_REQUEST) != null) {
             RequestDataThreadHolder.clear();
         }
-        String interval = InterceptorUtil.intervalToString(requestData.getStartTime(), System.currentTimeMillis());
-        LOGGER.info("{}", LoggerRestConfiguration.msgClientSucceed(requestData.getPrincipal(), requestContext.getMethod(), requestContext.getUri().toString(), interval, responseContext.getStatus()));
+        Object startTime = requestContext.getProperty(START_TIME);
+        ElapsedTime interval = ElapsedTime.since(startTime != null ? (Long) startTime : requestData.getStartNanos());
+        LogWriter.info(LOGGER, LoggerRestConfiguration.msgClientRequestFinished(requestData, requestContext.getMethod(), requestContext.getUri(), interval, responseContext.getStatus()));
     }
 
     @Override
@@ -65,6 +69,7 @@ public class ClientServiceLogFilter implements ClientRequestFilter, ClientRespon
             requestData = RequestDataThreadHolder.createAndSet(null, null, null, null, null);
             requestContext.setProperty(CLEAR_REQUEST, Boolean.TRUE);
         }
+        requestContext.setProperty(START_TIME, System.nanoTime());
         requestContext.getHeaders().add(RequestDataHeaderProperties.HEADER_ID, requestData.getId());
         if (LoggerRestConfiguration.CLIENT_HEADER_HOST) {
             requestContext.getHeaders().add(RequestDataHeaderProperties.HEADER_CLIENT_HOST, HostNameService.getHostName());
@@ -72,6 +77,6 @@ public class ClientServiceLogFilter implements ClientRequestFilter, ClientRespon
         if (LoggerRestConfiguration.CLIENT_HEADER_PRINCIPAL) {
             requestContext.getHeaders().add(RequestDataHeaderProperties.HEADER_PRINCIPAL, requestData.getPrincipal());
         }
-        LOGGER.info("{}", LoggerRestConfiguration.msgClientStart(requestData.getPrincipal(), requestContext.getMethod(), requestContext.getUri().toString()));
+        LogWriter.info(LOGGER, LoggerRestConfiguration.msgClientRequestStart(requestData, requestContext.getMethod(), requestContext.getUri()));
     }
 }
@@ -25,10 +25,12 @@ import javax.ws.rs.container.ResourceInfo;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Response.Status.Family;
 import javax.ws.rs.ext.Provider;
+import org.lorislab.jee.interceptor.ElapsedTime;
 import org.lorislab.jee.interceptor.InterceptorUtil;
 import org.lorislab.jee.interceptor.RequestDataThreadHolder;
 import org.lorislab.jee.annotation.LoggerService;
 import org.lorislab.jee.interceptor.RequestData;
+import org.lorislab.jee.logger.LogWriter;
 import org.lorislab.jee.rs.LoggerRestConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -76,7 +78,7 @@ public class RequestResponseInterceptor implements ContainerRequestFilter, Conta
         if (ano.log()) {
             // create the logger
             Logger logger = LoggerFactory.getLogger(resourceInfo.getResourceClass());
-            logger.info("{}", LoggerRestConfiguration.msgStart(requestData.getClientPrincipal(), requestData.getClientHost(), servletRequest.getMethod(), requestContext.getUriInfo().getRequestUri()));
+            LogWriter.info(logger, LoggerRestConfiguration.msgRequestStart(requestData, servletRequest.getMethod(), requestContext.getUriInfo().getRequestUri()));
         }
     }
 
@@ -92,14 +94,14 @@ public class RequestResponseInterceptor implements ContainerRequestFilter, Conta
 
                     if (responseContext.getStatusInfo().getFamily() == Family.SUCCESSFUL) {
                         Logger logger = LoggerFactory.getLogger(resourceInfo.getResourceClass());
-                        String interval = InterceptorUtil.intervalToString(requestData.getStartTime(), System.currentTimeMillis());
-                        logger.info("{}", LoggerRestConfiguration.msgClientSucceed(requestData.getClientPrincipal(), requestData.getClientHost(), servletRequest.getMethod(), requestContext.getUriInfo().getRequestUri(), interval, responseContext.getStatus()));
+                        ElapsedTime interval = ElapsedTime.since(requestData.getStartNanos());
+                        LogWriter.info(logger, LoggerRestConfiguration.msgRequestFinished(requestData, servletRequest.getMethod(), requestContext.getUriInfo().getRequestUri(), interval, responseContext.getStatus(), true));
                     } else {
                         if (resourceInfo != null && resourceInfo.getResourceClass() != null) {
                             try {
                                 Logger logger = LoggerFactory.getLogger(resourceInfo.getResourceClass());
-                                String interval = InterceptorUtil.intervalToString(requestData.getStartTime(), System.currentTimeMillis());
-                                logger.info("{}", LoggerRestConfiguration.msgSucceed(requestData.getClientPrincipal(), requestData.getClientHost(), servletRequest.getMethod(), requestContext.getUriInfo().getRequestUri(), interval, responseContext.getStatus()));
+                                ElapsedTime interval = ElapsedTime.since(requestData.getStartNanos());
+                                LogWriter.info(logger, LoggerRestConfiguration.msgRequestFinished(requestData, servletRequest.getMethod(), requestContext.getUriInfo().getRequestUri(), interval, responseContext.getStatus(), false));
                             } catch (Exception e) {
                                 LOGGER.warn("No REST resouce found matching URI {}", requestContext.getUriInfo().toString(), e);
                             }
@@ -15,7 +15,6 @@
  */
 package org.lorislab.jee.rs.mapper;
 
-import org.lorislab.jee.rs.LoggerRestConfiguration;
 import java.io.Serializable;
 import java.util.Locale;
 import javax.servlet.http.HttpServletRequest;
@@ -27,9 +26,12 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.ext.ExceptionMapper;
 import javax.ws.rs.ext.Provider;
+import org.lorislab.jee.Configuration;
 import org.lorislab.jee.exception.ServiceException;
 import org.lorislab.jee.interceptor.RequestDataThreadHolder;
 import org.lorislab.jee.interceptor.RequestData;
+import org.lorislab.jee.logger.LogWriter;
+import org.lorislab.jee.rs.LoggerRestConfiguration;
 import org.lorislab.java.util.ResourceManager;
 import org.lorislab.jee.rs.interceptor.RequestDataHeaderProperties;
 import org.lorislab.jee.rs.model.RestException;
@@ -109,7 +111,9 @@ public class RestExceptionMapper implements ExceptionMapper<Exception>, Serializ
                     logEx = null;
                 }
             }
-            logger.error("{}", LoggerRestConfiguration.msgException(data.getClientPrincipal(), data.getClientHost(), resourceInfo.getResourceMethod().getName(), request.getRequestURI(), exception.getClass().getSimpleName()), logEx);
+            Object message = LoggerRestConfiguration.msgRequestException(data, resourceInfo.getResourceMethod().getName(), request.getRequestURI(), exception, logEx != null);
+            // the JSON message contains the stack trace
+            LogWriter.error(logger, message, Configuration.JSON_FORMAT ? null : logEx);
         }
 
         return Response.status(Status.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.java.lang;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author andrej
+ */
+public class ReflectionUtilTest {
+
+    @Test
+    public void toStringTest() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("a", 1);
+        map.put("b", null);
+        Object[] array = new Object[]{"z", null};
+        Model model = new Model(Arrays.asList((Object) "x", "y"), map, array);
+        Assertions.assertEquals("Model[items=[x, y],map={a=1, b=null},array=" + array + "]", ReflectionUtil.toString(model));
+        Assertions.assertEquals("Model[items=[x, y],map={a=1, b=null},array=[z, null]]", ReflectionUtil.appendTo(new StringBuilder(), model, -1, 100).toString());
+    }
+
+    @Test
+    public void collectionToStringTest() {
+        List<Object> items = new ArrayList<Object>() {
+            @Override
+            public String toString() {
+                return "bag";
+            }
+        };
+        items.add("x");
+        Model model = new Model(items, null, null);
+        Assertions.assertEquals("Model[items=bag,map=null,array=null]", ReflectionUtil.toString(model));
+    }
+
+    @Test
+    public void nestedMaxLengthTest() {
+        AtomicInteger count = new AtomicInteger();
+        List<Object> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            items.add(new Object() {
+                @Override
+                public String toString() {
+                    count.incrementAndGet();
+                    return "item";
+                }
+            });
+        }
+        Model model = new Model(items, null, null);
+        String result = ReflectionUtil.appendTo(new StringBuilder(), model, -1, 30).toString();
+        Assertions.assertEquals("Model[items=[item, item, item,...", result);
+        Assertions.assertEquals(3, count.get());
+    }
+
+    @Test
+    public void selfReferenceTest() {
+        List<Object> items = new ArrayList<>();
+        items.add(items);
+        Model model = new Model(items, null, null);
+        Assertions.assertEquals("Model[items=[(this Collection)],map=null,array=null]", ReflectionUtil.toString(model));
+    }
+
+    /**
+     * The test model.
+     */
+    static class Model {
+
+        private final List<Object> items;
+
+        private final Map<String, Object> map;
+
+        private final Object[] array;
+
+        Model(List<Object> items, Map<String, Object> map, Object[] array) {
+            this.items = items;
+            this.map = map;
+            this.array = array;
+        }
+    }
+}
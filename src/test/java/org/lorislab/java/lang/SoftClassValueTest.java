@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.java.lang;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author andrej
+ */
+public class SoftClassValueTest {
+
+    @Test
+    public void cacheTest() {
+        AtomicInteger count = new AtomicInteger();
+        SoftClassValue<String> value = new SoftClassValue<String>() {
+            @Override
+            protected String computeValue(Class<?> type) {
+                count.incrementAndGet();
+                return new String(type.getSimpleName());
+            }
+        };
+        String first = value.get(String.class);
+        Assertions.assertEquals("String", first);
+        Assertions.assertSame(first, value.get(String.class));
+        Assertions.assertEquals(1, count.get());
+
+        value.remove(String.class);
+        Assertions.assertEquals("String", value.get(String.class));
+        Assertions.assertEquals(2, count.get());
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.java.text;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author andrej
+ */
+public class JsonWriterTest {
+
+    @Test
+    public void writeTest() {
+        StringBuilder sb = new StringBuilder();
+        new JsonWriter(sb).begin()
+                .field(JsonWriter.name("id"), "1")
+                .field(JsonWriter.name("skip"), null)
+                .field(JsonWriter.name("time"), 42L)
+                .end();
+        Assertions.assertEquals("{\"id\":\"1\",\"time\":42}", sb.toString());
+    }
+
+    @Test
+    public void numberTest() {
+        StringBuilder sb = new StringBuilder();
+        new JsonWriter(sb).begin()
+                .field(JsonWriter.name("status"), 200)
+                .field(JsonWriter.name("rate"), 0.5d)
+                .field(JsonWriter.name("nan"), Double.NaN)
+                .field(JsonWriter.name("ok"), Boolean.TRUE)
+                .field(JsonWriter.name("code"), "200")
+                .end();
+        Assertions.assertEquals("{\"status\":200,\"rate\":0.5,\"nan\":\"NaN\",\"ok\":true,\"code\":\"200\"}", sb.toString());
+    }
+
+    @Test
+    public void escapeTest() {
+        StringBuilder sb = new StringBuilder();
+        JsonWriter.appendString(sb, "a\"b\\c\nd\t\u0001\u2028");
+        Assertions.assertEquals("\"a\\\"b\\\\c\\nd\\t\\u0001\\u2028\"", sb.toString());
+    }
+}
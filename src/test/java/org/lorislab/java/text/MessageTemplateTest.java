@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.java.text;
+
+import java.text.MessageFormat;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author andrej
+ */
+public class MessageTemplateTest {
+
+    @Test
+    public void formatTest() {
+        MessageTemplate tmp = MessageTemplate.compile("{0}:{1}({2}):{3} [{4}s] succeed.");
+        Assertions.assertEquals("user:method(a,b):null [0.001s] succeed.", tmp.format("user", "method", "a,b", null, "0.001"));
+    }
+
+    @Test
+    public void formatQuoteTest() {
+        MessageTemplate tmp = MessageTemplate.compile("it''s '{0}' {0}");
+        Assertions.assertEquals("it's {0} x", tmp.format("x"));
+    }
+
+    @Test
+    public void formatMissingParameterTest() {
+        MessageTemplate tmp = MessageTemplate.compile("{0}-->{1}:{2}() {3}");
+        Assertions.assertEquals("1-->2:{2}() {3}", tmp.format(1, 2));
+    }
+
+    @Test
+    public void formatMessageFormatTest() {
+        String pattern = "{0,number,#} {1}";
+        Object[] parameters = new Object[]{1234, "x"};
+        Assertions.assertEquals(new MessageFormat(pattern).format(parameters), MessageTemplate.compile(pattern).format(parameters));
+    }
+
+    @Test
+    public void formatNestedTest() {
+        MessageTemplate tmp = MessageTemplate.compile("[{0}]");
+        Object nested = tmp.message("inner");
+        Assertions.assertEquals("[[inner]]", tmp.format(nested));
+    }
+}
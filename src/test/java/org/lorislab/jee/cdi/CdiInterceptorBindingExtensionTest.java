@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.cdi;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author andrej
+ */
+public class CdiInterceptorBindingExtensionTest {
+
+    @Test
+    public void emptyPatternsTest() {
+        Assertions.assertTrue(CdiInterceptorBindingExtension.createPatterns(null).isEmpty());
+        Assertions.assertTrue(CdiInterceptorBindingExtension.createPatterns(" , ,").isEmpty());
+        Assertions.assertFalse(CdiInterceptorBindingExtension.matches("org.test.Service", CdiInterceptorBindingExtension.createPatterns(null)));
+    }
+
+    @Test
+    public void packagePatternTest() {
+        List<Pattern> patterns = CdiInterceptorBindingExtension.createPatterns("org.test");
+        Assertions.assertEquals(1, patterns.size());
+        Assertions.assertTrue(CdiInterceptorBindingExtension.matches("org.test", patterns));
+        Assertions.assertTrue(CdiInterceptorBindingExtension.matches("org.test.Service", patterns));
+        Assertions.assertTrue(CdiInterceptorBindingExtension.matches("org.test.sub.Service", patterns));
+        Assertions.assertFalse(CdiInterceptorBindingExtension.matches("org.testing.Service", patterns));
+        Assertions.assertFalse(CdiInterceptorBindingExtension.matches("com.org.test.Service", patterns));
+    }
+
+    @Test
+    public void wildcardPatternTest() {
+        List<Pattern> patterns = CdiInterceptorBindingExtension.createPatterns("org.*.Service, *Dao");
+        Assertions.assertEquals(2, patterns.size());
+        Assertions.assertTrue(CdiInterceptorBindingExtension.matches("org.test.Service", patterns));
+        Assertions.assertTrue(CdiInterceptorBindingExtension.matches("org.a.b.Service", patterns));
+        Assertions.assertFalse(CdiInterceptorBindingExtension.matches("org.test.ServiceImpl", patterns));
+        Assertions.assertTrue(CdiInterceptorBindingExtension.matches("org.test.UserDao", patterns));
+        Assertions.assertFalse(CdiInterceptorBindingExtension.matches("org.test.UserDaoImpl", patterns));
+    }
+
+    @Test
+    public void quotePatternTest() {
+        List<Pattern> patterns = CdiInterceptorBindingExtension.createPatterns("org.test.Service$1");
+        Assertions.assertTrue(CdiInterceptorBindingExtension.matches("org.test.Service$1", patterns));
+        Assertions.assertFalse(CdiInterceptorBindingExtension.matches("orgXtest.Service$1", patterns));
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.cdi.util;
+
+import java.util.Properties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author andrej
+ */
+public class JelConfigTest {
+
+    @Test
+    public void numberPropertyTest() {
+        Properties prop = new Properties();
+        prop.setProperty("int", " 42 ");
+        prop.setProperty("long", "9000000000");
+        prop.setProperty("invalid", "abc");
+        Assertions.assertEquals(42, JelConfig.getIntProperty("int", 1, prop));
+        Assertions.assertEquals(1, JelConfig.getIntProperty("missing", 1, prop));
+        Assertions.assertEquals(1, JelConfig.getIntProperty("invalid", 1, prop));
+        Assertions.assertEquals(1, JelConfig.getIntProperty("long", 1, prop));
+        Assertions.assertEquals(9_000_000_000L, JelConfig.getLongProperty("long", 1, prop));
+        Assertions.assertEquals(5L, JelConfig.getLongProperty("invalid", 5, prop));
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import javax.interceptor.InvocationContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.lorislab.jee.logger.LoggerFormaterService;
+
+/**
+ *
+ * @author andrej
+ */
+public class AbstractServiceInterceptorTest {
+
+    private static TestInterceptor interceptor() throws Exception {
+        TestInterceptor result = new TestInterceptor();
+        Field field = AbstractServiceInterceptor.class.getDeclaredField("loggerFormater");
+        field.setAccessible(true);
+        field.set(result, new LoggerFormaterService());
+        return result;
+    }
+
+    private static List<String> record(Class<?> clazz, String name) throws Exception {
+        List<String> messages = RecordingLogger.messages();
+        Method method = clazz.getMethod(name, String.class);
+        RecordingLogger.install(InvocationDescriptor.get(clazz, method), RecordingLogger.create(messages));
+        return messages;
+    }
+
+    private static Object invoke(Object target, String name, Object result) throws Exception {
+        Method method = target.getClass().getMethod(name, String.class);
+        return interceptor().methodExecution(new TestInvocationContext(target, method, new Object[]{"p1"}, result));
+    }
+
+    private static boolean contains(List<String> messages, String prefix, String text) {
+        for (String message : messages) {
+            if (message.startsWith(prefix) && message.contains(text)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void completionStageSucceedTest() throws Exception {
+        List<String> messages = record(AsyncService.class, "find");
+        CompletableFuture<String> future = new CompletableFuture<>();
+        Object result = invoke(new AsyncService(), "find", future);
+        Assertions.assertSame(future, result);
+        Assertions.assertFalse(contains(messages, "info", "succeed"), messages.toString());
+        Assertions.assertNull(RequestDataThreadHolder.get());
+
+        future.complete("value-1");
+        Assertions.assertTrue(contains(messages, "info", "value-1"), messages.toString());
+        Assertions.assertTrue(contains(messages, "info", "succeed"), messages.toString());
+        Assertions.assertNull(RequestDataThreadHolder.get());
+    }
+
+    @Test
+    public void completionStageFailedTest() throws Exception {
+        List<String> messages = record(AsyncService.class, "load");
+        CompletableFuture<String> future = new CompletableFuture<>();
+        invoke(new AsyncService(), "load", future);
+        future.completeExceptionally(new IllegalStateException("async-error"));
+        Assertions.assertTrue(contains(messages, "error", "failed"), messages.toString());
+        Assertions.assertTrue(contains(messages, "error", "IllegalStateException"), messages.toString());
+    }
+
+    @Test
+    public void futureDoneTest() throws Exception {
+        List<String> messages = record(AsyncService.class, "future");
+        FutureTask<String> future = new FutureTask<>(() -> "done-1");
+        future.run();
+        invoke(new AsyncService(), "future", future);
+        Assertions.assertTrue(contains(messages, "info", "done-1"), messages.toString());
+    }
+
+    @Test
+    public void futureCancelledTest() throws Exception {
+        List<String> messages = record(AsyncService.class, "future");
+        FutureTask<String> future = new FutureTask<>(() -> "done-1");
+        future.cancel(false);
+        Assertions.assertSame(future, invoke(new AsyncService(), "future", future));
+        Assertions.assertTrue(contains(messages, "error", "failed"), messages.toString());
+        Assertions.assertFalse(contains(messages, "info", "succeed"), messages.toString());
+    }
+
+    @Test
+    public void syncFailedTest() throws Exception {
+        List<String> messages = record(AsyncService.class, "sync");
+        IllegalArgumentException error = new IllegalArgumentException("sync-error");
+        Assertions.assertSame(error, Assertions.assertThrows(IllegalArgumentException.class, () -> invoke(new AsyncService(), "sync", error)));
+        Assertions.assertTrue(contains(messages, "error", "failed"), messages.toString());
+    }
+
+    /**
+     * The test interceptor.
+     */
+    static class TestInterceptor extends AbstractServiceInterceptor {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected String getPrincipal() {
+            return "user";
+        }
+    }
+
+    /**
+     * The invocation context which returns or throws the prepared result.
+     */
+    static class TestInvocationContext implements InvocationContext {
+
+        private final Object target;
+
+        private final Method method;
+
+        private Object[] parameters;
+
+        private final Object result;
+
+        private final Map<String, Object> data = new HashMap<>();
+
+        TestInvocationContext(Object target, Method method, Object[] parameters, Object result) {
+            this.target = target;
+            this.method = method;
+            this.parameters = parameters;
+            this.result = result;
+        }
+
+        @Override
+        public Object getTarget() {
+            return target;
+        }
+
+        @Override
+        public Object getTimer() {
+            return null;
+        }
+
+        @Override
+        public Method getMethod() {
+            return method;
+        }
+
+        @Override
+        public Constructor<?> getConstructor() {
+            return null;
+        }
+
+        @Override
+        public Object[] getParameters() {
+            return parameters;
+        }
+
+        @Override
+        public void setParameters(Object[] params) {
+            this.parameters = params;
+        }
+
+        @Override
+        public Map<String, Object> getContextData() {
+            return data;
+        }
+
+        @Override
+        public Object proceed() throws Exception {
+            if (result instanceof Exception) {
+                throw (Exception) result;
+            }
+            return result;
+        }
+    }
+}
+
+class AsyncService {
+
+    public CompletableFuture<String> find(String value) {
+        return null;
+    }
+
+    public CompletableFuture<String> load(String value) {
+        return null;
+    }
+
+    public Future<String> future(String value) {
+        return null;
+    }
+
+    public String sync(String value) {
+        return null;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author andrej
+ */
+public class DefaultRequestIdGeneratorTest {
+
+    @Test
+    public void generateTest() {
+        DefaultRequestIdGenerator generator = new DefaultRequestIdGenerator(0xCAFE, 0x1234L);
+        Assertions.assertEquals("0000cafe-000000001234-0000000000000000", generator.generate());
+        Assertions.assertEquals("0000cafe-000000001234-0000000000000001", generator.generate());
+    }
+
+    @Test
+    public void generateUniqueTest() throws InterruptedException {
+        DefaultRequestIdGenerator generator = new DefaultRequestIdGenerator();
+        Set<String> ids = new HashSet<>();
+        Thread thread = new Thread(() -> {
+            for (int i = 0; i < 3000; i++) {
+                synchronized (ids) {
+                    ids.add(generator.generate());
+                }
+            }
+        });
+        thread.start();
+        for (int i = 0; i < 3000; i++) {
+            String id = generator.generate();
+            Assertions.assertEquals(38, id.length());
+            synchronized (ids) {
+                ids.add(id);
+            }
+        }
+        thread.join();
+        Assertions.assertEquals(6000, ids.size());
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author andrej
+ */
+public class InterceptorUtilTest {
+
+    @Test
+    public void appendSecondsDefaultPrecisionTest() {
+        StringBuilder sb = new StringBuilder();
+        InterceptorUtil.appendSeconds(sb, 1_234_567_890L);
+        Assertions.assertEquals("1.235", sb.toString());
+    }
+
+    @Test
+    public void appendSecondsFractionTest() {
+        StringBuilder sb = new StringBuilder();
+        InterceptorUtil.appendSeconds(sb, 5_000_000L);
+        Assertions.assertEquals("0.005", sb.toString());
+    }
+}
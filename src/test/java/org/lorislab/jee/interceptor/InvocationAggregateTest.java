@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+/**
+ *
+ * @author andrej
+ */
+public class InvocationAggregateTest {
+
+    @Test
+    public void intervalTest() {
+        List<String> messages = RecordingLogger.messages();
+        Logger logger = RecordingLogger.create(messages);
+        InvocationAggregate aggregate = InvocationAggregate.create(logger, "IntervalService", "find", 0);
+        try {
+            Assertions.assertTrue(aggregate.isActive());
+            aggregate.record(1_000_000, false);
+            aggregate.record(2_000_000, false);
+            aggregate.record(3_000_000, true);
+            long now = System.nanoTime();
+            aggregate.summary(now);
+            Assertions.assertEquals(1, messages.size());
+            Assertions.assertTrue(messages.get(0).startsWith("info IntervalService:find"));
+            Assertions.assertTrue(messages.get(0).contains("count:3 failed:1"));
+
+            aggregate.record(4_000_000, false);
+            aggregate.summary(now + TimeUnit.SECONDS.toNanos(1));
+            Assertions.assertEquals(2, messages.size());
+            Assertions.assertTrue(messages.get(1).contains("[1.000s] count:1 failed:0"));
+
+            aggregate.summary(now + TimeUnit.SECONDS.toNanos(2));
+            Assertions.assertEquals(2, messages.size());
+        } finally {
+            InvocationAggregate.shutdown();
+        }
+    }
+
+    @Test
+    public void rateTest() {
+        List<String> messages = RecordingLogger.messages();
+        InvocationAggregate aggregate = InvocationAggregate.create(RecordingLogger.create(messages), "RateService", "find", 2);
+        try {
+            Assertions.assertFalse(aggregate.isActive());
+            long now = System.nanoTime();
+            aggregate.summary(now);
+            for (int i = 0; i < 5; i++) {
+                aggregate.record(1_000, false);
+            }
+            aggregate.summary(now + TimeUnit.SECONDS.toNanos(1));
+            Assertions.assertTrue(aggregate.isActive());
+            aggregate.summary(now + TimeUnit.SECONDS.toNanos(2));
+            Assertions.assertFalse(aggregate.isActive());
+        } finally {
+            InvocationAggregate.shutdown();
+        }
+    }
+
+    @Test
+    public void registryTest() {
+        List<String> messages = RecordingLogger.messages();
+        Logger logger = RecordingLogger.create(messages);
+        InvocationAggregate aggregate = InvocationAggregate.create(logger, "RegistryService", "find", 0);
+        Assertions.assertSame(aggregate, InvocationAggregate.create(logger, "RegistryService", "find", 0));
+        Assertions.assertNotSame(aggregate, InvocationAggregate.create(logger, "RegistryService", "load", 0));
+
+        aggregate.record(1_000, false);
+        InvocationAggregate.shutdown();
+        Assertions.assertEquals(1, messages.size());
+        Assertions.assertNotSame(aggregate, InvocationAggregate.create(logger, "RegistryService", "find", 0));
+        InvocationAggregate.shutdown();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.lorislab.jee.annotation.LoggerService;
+
+/**
+ *
+ * @author andrej
+ */
+public class InvocationDescriptorTest {
+
+    @Test
+    public void methodAnnotationPrecedenceTest() throws Exception {
+        System.setProperty("org.lorislab.jel.logger.sample." + SampledService.class.getName(), "3");
+        try {
+            InvocationDescriptor method = InvocationDescriptor.get(SampledService.class, SampledService.class.getMethod("method"));
+            Assertions.assertEquals(7, method.getSampling().getSample());
+            InvocationDescriptor clazz = InvocationDescriptor.get(SampledService.class, SampledService.class.getMethod("clazz"));
+            Assertions.assertEquals(3, clazz.getSampling().getSample());
+        } finally {
+            System.clearProperty("org.lorislab.jel.logger.sample." + SampledService.class.getName());
+        }
+    }
+
+    @Test
+    public void invalidPropertyTest() throws Exception {
+        System.setProperty("org.lorislab.jel.logger.sample." + InvalidService.class.getName(), "abc");
+        try {
+            InvocationDescriptor descriptor = InvocationDescriptor.get(InvalidService.class, InvalidService.class.getMethod("method"));
+            Assertions.assertNull(descriptor.getSampling());
+        } finally {
+            System.clearProperty("org.lorislab.jel.logger.sample." + InvalidService.class.getName());
+        }
+    }
+}
+
+@LoggerService(sample = 5)
+class SampledService {
+
+    @LoggerService(sample = 7)
+    public void method() {
+    }
+
+    public void clazz() {
+    }
+}
+
+class InvalidService {
+
+    public void method() {
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.slf4j.Logger;
+
+/**
+ * The logger which records the log messages for the tests.
+ *
+ * @author andrej
+ */
+public final class RecordingLogger {
+
+    private RecordingLogger() {
+    }
+
+    /**
+     * Creates the logger with all levels enabled. Each message is recorded as
+     * {@code <level> <message>}.
+     *
+     * @param messages the recorded messages.
+     * @return the logger.
+     */
+    public static Logger create(List<String> messages) {
+        return (Logger) Proxy.newProxyInstance(RecordingLogger.class.getClassLoader(), new Class[]{Logger.class}, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("is")) {
+                return true;
+            }
+            if ("getName".equals(name)) {
+                return "test";
+            }
+            if (args != null && args.length > 1) {
+                messages.add(name + " " + args[1]);
+            } else if (args != null) {
+                messages.add(name + " " + args[0]);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Creates the recorded messages list.
+     *
+     * @return the thread-safe list.
+     */
+    public static List<String> messages() {
+        return new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Replaces the logger of the invocation descriptor.
+     *
+     * @param descriptor the invocation descriptor.
+     * @param logger the logger.
+     * @throws Exception if the logger could not be set.
+     */
+    public static void install(InvocationDescriptor descriptor, Logger logger) throws Exception {
+        Field field = InvocationDescriptor.class.getDeclaredField("logger");
+        field.setAccessible(true);
+        field.set(descriptor, logger);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author andrej
+ */
+public class RequestDataContextTest {
+
+    private static String currentId() {
+        RequestData data = RequestDataThreadHolder.get();
+        return data == null ? null : data.getId();
+    }
+
+    @Test
+    public void noRequestDataTest() {
+        RequestDataThreadHolder.clear();
+        Runnable task = () -> {
+        };
+        Assertions.assertSame(task, RequestDataContext.runnable(task));
+    }
+
+    @Test
+    public void executorTest() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            RequestDataThreadHolder.createAndSet("executor", "user", null, null, null);
+            String result = CompletableFuture.supplyAsync(RequestDataContextTest::currentId, RequestDataContext.executor(pool)).get();
+            Assertions.assertEquals("executor", result);
+            RequestDataThreadHolder.clear();
+            // the worker thread has no request data after the task
+            Assertions.assertNull(pool.submit(RequestDataContextTest::currentId).get());
+        } finally {
+            RequestDataThreadHolder.clear();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void executorServiceTest() throws Exception {
+        ExecutorService pool = RequestDataContext.executorService(Executors.newFixedThreadPool(2));
+        try {
+            RequestDataThreadHolder.createAndSet("service", "user", null, null, null);
+            Callable<String> task = RequestDataContextTest::currentId;
+            Assertions.assertEquals("service", pool.submit(task).get());
+            List<Future<String>> all = pool.invokeAll(Arrays.asList(task, task));
+            Assertions.assertEquals("service", all.get(0).get());
+            Assertions.assertEquals("service", all.get(1).get());
+            Assertions.assertEquals("service", pool.invokeAny(Arrays.asList(task, task)));
+            Assertions.assertSame(pool, RequestDataContext.executorService(pool));
+        } finally {
+            RequestDataThreadHolder.clear();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void restorePreviousTest() throws Exception {
+        RequestDataThreadHolder.createAndSet("outer", "user", null, null, null);
+        Callable<String> task = RequestDataContext.callable(RequestDataContextTest::currentId);
+        RequestDataThreadHolder.createAndSet("inner", "user", null, null, null);
+        try {
+            Assertions.assertEquals("outer", task.call());
+            Assertions.assertEquals("inner", currentId());
+        } finally {
+            RequestDataThreadHolder.clear();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+import java.util.Stack;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author andrej
+ */
+public class RequestDataTest {
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void traceAdapterTest() {
+        RequestData data = new RequestData();
+        Stack<String> trace = new Stack<>();
+        trace.push("a.Service");
+        trace.push("b.Service");
+        data.setTrace(trace);
+        Assertions.assertEquals(2, data.getCallTree().getDepth());
+        Assertions.assertEquals("b.Service", data.peekTrace());
+        Assertions.assertEquals(trace, data.getTrace());
+    }
+
+    @Test
+    public void forkTest() {
+        RequestData data = new RequestData();
+        data.setId("1");
+        data.addTrace("a.Service", "method", System.nanoTime());
+        RequestData fork = data.fork();
+        Assertions.assertEquals("1", fork.getId());
+        Assertions.assertFalse(fork.isTrace());
+        Assertions.assertEquals(1, data.getCallTree().getDepth());
+        Assertions.assertEquals("a.Service", data.popTrace(System.nanoTime()));
+        Assertions.assertFalse(data.isTrace());
+    }
+}
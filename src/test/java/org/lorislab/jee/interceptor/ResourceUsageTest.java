@@ -0,0 +1,42 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author andrej
+ */
+public class ResourceUsageTest {
+
+    @Test
+    public void deltaTest() {
+        Assertions.assertEquals(5, ResourceUsage.delta(10, 15));
+        Assertions.assertEquals(0, ResourceUsage.delta(15, 10));
+        Assertions.assertEquals(-1, ResourceUsage.delta(-1, 15));
+        Assertions.assertEquals(-1, ResourceUsage.delta(10, -1));
+    }
+
+    @Test
+    public void argumentTest() {
+        Assertions.assertEquals(" cpu:0.012s alloc:1024B", ResourceUsage.argument(12_000_000, 1024).toString());
+        Assertions.assertEquals(" cpu:0.012s", ResourceUsage.argument(12_000_000, -1).toString());
+        Assertions.assertEquals(" alloc:0B", ResourceUsage.argument(-1, 0).toString());
+        Assertions.assertEquals("", ResourceUsage.argument(-1, -1).toString());
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author andrej
+ */
+public class SamplingPolicyTest {
+
+    @Test
+    public void sampleTest() {
+        SamplingPolicy policy = SamplingPolicy.create(3, 0);
+        int sampled = 0;
+        for (int i = 0; i < 9; i++) {
+            if (policy.isSampled()) {
+                sampled++;
+            }
+        }
+        Assertions.assertEquals(3, sampled);
+    }
+
+    @Test
+    public void noSamplingTest() {
+        Assertions.assertNull(SamplingPolicy.create(1, 0));
+    }
+}
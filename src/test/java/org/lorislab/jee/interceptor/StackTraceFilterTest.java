@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.interceptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+/**
+ *
+ * @author andrej
+ */
+public class StackTraceFilterTest {
+
+    @Test
+    public void windowTest() {
+        List<String> messages = new ArrayList<>();
+        Logger logger = RecordingLogger.create(messages);
+        StackTraceFilter filter = new StackTraceFilter(100, 5, 10);
+        Exception ex = new IllegalStateException("error");
+
+        StackTraceFilter.Occurrence o = filter.check(logger, "Service", "method", ex, null, "1", 0);
+        Assertions.assertTrue(o.isFull());
+        o = filter.check(logger, "Service", "method", ex, null, "2", 10);
+        Assertions.assertFalse(o.isFull());
+        Assertions.assertEquals("1", o.getRequestId());
+        filter.check(logger, "Service", "method", ex, null, "3", 20);
+
+        o = filter.check(logger, "Service", "method", ex, null, "4", 100);
+        Assertions.assertTrue(o.isFull());
+        Assertions.assertEquals(2, o.getSuppressed());
+        o = filter.check(logger, "Service", "method", ex, null, "5", 110);
+        Assertions.assertEquals("4", o.getRequestId());
+    }
+
+    @Test
+    public void flushTest() {
+        List<String> messages = new ArrayList<>();
+        Logger logger = RecordingLogger.create(messages);
+        StackTraceFilter filter = new StackTraceFilter(100, 5, 10);
+        Exception ex = new IllegalStateException("error");
+
+        filter.check(logger, "Service", "method", ex, null, "1", 0);
+        filter.check(logger, "Service", "method", ex, null, "2", 10);
+        filter.check(logger, "Service", "method", ex, null, "3", 20);
+
+        Assertions.assertEquals(0, filter.flush(50));
+        Assertions.assertTrue(messages.isEmpty());
+        Assertions.assertEquals(1, filter.flush(100));
+        Assertions.assertEquals(0, filter.size());
+        Assertions.assertEquals(1, messages.size());
+        Assertions.assertTrue(messages.get(0).startsWith("warn"));
+        Assertions.assertTrue(messages.get(0).contains(IllegalStateException.class.getName()));
+    }
+
+    @Test
+    public void evictTest() {
+        List<String> messages = new ArrayList<>();
+        Logger logger = RecordingLogger.create(messages);
+        StackTraceFilter filter = new StackTraceFilter(100, 5, 2);
+        Exception ex1 = new IllegalStateException("error");
+        Exception ex2 = new IllegalArgumentException("error");
+        Exception ex3 = new UnsupportedOperationException("error");
+
+        filter.check(logger, "Service", "method", ex1, null, "1", 0);
+        filter.check(logger, "Service", "method", ex1, null, "2", 10);
+        filter.check(logger, "Service", "method", ex2, null, "3", 10);
+        filter.check(logger, "Service", "method", ex2, null, "4", 20);
+        Assertions.assertEquals(2, filter.size());
+
+        StackTraceFilter.Occurrence o = filter.check(logger, "Service", "method", ex3, null, "5", 50);
+        Assertions.assertTrue(o.isFull());
+        Assertions.assertEquals(2, filter.size());
+        o = filter.check(logger, "Service", "method", ex3, null, "6", 60);
+        Assertions.assertTrue(o.isFull());
+
+        o = filter.check(logger, "Service", "method", ex3, null, "7", 150);
+        Assertions.assertTrue(o.isFull());
+        Assertions.assertEquals(2, messages.size());
+        o = filter.check(logger, "Service", "method", ex3, null, "8", 160);
+        Assertions.assertFalse(o.isFull());
+        Assertions.assertEquals("7", o.getRequestId());
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.jpa.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author andrej
+ */
+public class EntityLoggerParameterTest {
+
+    @Test
+    public void fieldAccessTest() {
+        EntityLoggerParameter parameter = new EntityLoggerParameter();
+        Assertions.assertTrue(parameter.isSupported(FieldEntity.class));
+        Assertions.assertFalse(parameter.isSupported(String.class));
+        Assertions.assertEquals("FieldEntity:42", parameter.getObject(new FieldEntity(42L)));
+        Assertions.assertEquals("FieldEntity", parameter.getObject(new FieldEntity(null)));
+    }
+
+    @Test
+    public void propertyAccessTest() {
+        EntityLoggerParameter parameter = new EntityLoggerParameter();
+        Assertions.assertTrue(parameter.isSupported(PropertyEntity.class));
+        PropertyEntity entity = new PropertyEntity();
+        entity.setId("A1");
+        Assertions.assertEquals("PropertyEntity:A1", parameter.getObject(entity));
+    }
+
+    @Test
+    public void proxyTest() {
+        EntityLoggerParameter parameter = new EntityLoggerParameter();
+        Assertions.assertTrue(parameter.isSupported(FieldEntityProxy.class));
+        Assertions.assertEquals("FieldEntity:7", parameter.getObject(new FieldEntityProxy(new FieldEntity(7L))));
+    }
+
+    @Test
+    public void propertyNameTest() throws Exception {
+        Assertions.assertEquals("id", EntityLoggerParameter.getPropertyName(PropertyEntity.class.getMethod("getId")));
+        Assertions.assertEquals("active", EntityLoggerParameter.getPropertyName(PropertyEntity.class.getMethod("isActive")));
+        Assertions.assertNull(EntityLoggerParameter.getPropertyName(PropertyEntity.class.getMethod("setId", String.class)));
+        Assertions.assertNull(EntityLoggerParameter.getPropertyName(Object.class.getMethod("hashCode")));
+    }
+}
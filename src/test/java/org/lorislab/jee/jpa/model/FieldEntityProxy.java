@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.jpa.model;
+
+/**
+ * The test entity proxy. The fields of the proxy are not initialized, the
+ * methods delegate to the target entity.
+ *
+ * @author andrej
+ */
+class FieldEntityProxy extends FieldEntity {
+
+    private final FieldEntity target;
+
+    FieldEntityProxy(FieldEntity target) {
+        this.target = target;
+    }
+
+    @Override
+    public Long getId() {
+        return target.getId();
+    }
+
+    @Override
+    public String getName() {
+        return target.getName();
+    }
+}
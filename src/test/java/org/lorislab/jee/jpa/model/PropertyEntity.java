@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.jpa.model;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * The test entity with the property access.
+ *
+ * @author andrej
+ */
+@Entity
+public class PropertyEntity {
+
+    private String key;
+
+    private boolean active;
+
+    @Id
+    public String getId() {
+        return key;
+    }
+
+    public void setId(String id) {
+        this.key = id;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.logger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author andrej
+ */
+public class ArrayLoggerParameterTest {
+
+    @Test
+    public void getObjectTest() {
+        ArrayLoggerParameter parameter = new ArrayLoggerParameter();
+        Assertions.assertEquals("byte[4]", parameter.getObject(new byte[4]));
+        Assertions.assertEquals("long[2]", parameter.getObject(new long[]{1, 2}));
+        Assertions.assertEquals("String[1]", parameter.getObject(new String[]{"a"}));
+        Assertions.assertEquals("int[2][]", parameter.getObject(new int[2][3]));
+    }
+
+    @Test
+    public void previewTest() {
+        StringBuilder sb = new StringBuilder();
+        ArrayLoggerParameter.appendArray(sb, new long[]{1, 2, 3, 4, 5}, 3);
+        Assertions.assertEquals("long[5]{1,2,3,...}", sb.toString());
+
+        sb.setLength(0);
+        ArrayLoggerParameter.appendArray(sb, new int[][]{{1}, {2, 3}}, 3);
+        Assertions.assertEquals("int[2][]{int[1],int[2]}", sb.toString());
+
+        sb.setLength(0);
+        ArrayLoggerParameter.appendArray(sb, new String[]{"a", null}, 3);
+        Assertions.assertEquals("String[2]{a,null}", sb.toString());
+    }
+}
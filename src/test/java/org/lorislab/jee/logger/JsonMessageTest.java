@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.logger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author andrej
+ */
+public class JsonMessageTest {
+
+    @Test
+    public void restStatusTest() {
+        String msg = JsonMessage.rest(JsonMessage.REST, 200, "1", "user", "GET", "/a", 5, null).toString();
+        Assertions.assertEquals("{\"type\":\"rest\",\"status\":200,\"requestId\":\"1\",\"principal\":\"user\",\"method\":\"GET\",\"uri\":\"/a\",\"durationNanos\":5}", msg);
+    }
+
+    @Test
+    public void exceptionTest() {
+        String msg = JsonMessage.exception(JsonMessage.EXCEPTION, "1", "a.Service", "find", -1)
+                .error(new IllegalStateException("wrong\nstate"), "KEY", null, true).toString();
+        Assertions.assertTrue(msg.startsWith("{\"type\":\"service\",\"status\":\"exception\",\"requestId\":\"1\",\"class\":\"a.Service\",\"method\":\"find\""
+                + ",\"error\":\"java.lang.IllegalStateException\",\"errorKey\":\"KEY\",\"errorMessage\":\"wrong\\nstate\",\"stackTrace\":\"java.lang.IllegalStateException: wrong\\nstate"), msg);
+        Assertions.assertTrue(msg.contains("at org.lorislab.jee.logger.JsonMessageTest.exceptionTest"), msg);
+        Assertions.assertFalse(msg.contains("\n"), msg);
+    }
+
+    @Test
+    public void repeatedTest() {
+        String msg = JsonMessage.exception(JsonMessage.REPEATED, "2", "a.Service", "find", -1)
+                .error(new IllegalStateException(), null, null, false).suppressed(-1, "1").toString();
+        Assertions.assertEquals("{\"type\":\"service\",\"status\":\"repeated\",\"requestId\":\"2\",\"class\":\"a.Service\",\"method\":\"find\""
+                + ",\"error\":\"java.lang.IllegalStateException\",\"stackTraceRequestId\":\"1\"}", msg);
+    }
+}
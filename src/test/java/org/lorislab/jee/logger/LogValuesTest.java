@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.logger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author andrej
+ */
+public class LogValuesTest {
+
+    @Test
+    public void appendTest() {
+        StringBuilder sb = new StringBuilder("a=");
+        Assertions.assertTrue(LogValues.append(sb, "text", 2, 100));
+        Assertions.assertEquals("a=te...", sb.toString());
+        Assertions.assertFalse(LogValues.append(sb, "text", -1, 9));
+        Assertions.assertEquals("a=te...te...", sb.toString());
+    }
+
+    @Test
+    public void appendPrimitiveTest() {
+        StringBuilder sb = new StringBuilder();
+        Assertions.assertTrue(LogValues.append(sb, 12345L, 3, 100));
+        Assertions.assertEquals("123...", sb.toString());
+        Assertions.assertTrue(LogValues.append(sb, 'c', -1, 100));
+        Assertions.assertTrue(LogValues.append(sb, true, -1, 100));
+        Assertions.assertEquals("123...ctrue", sb.toString());
+        Assertions.assertFalse(LogValues.append(sb, 1.5d, -1, 13));
+        Assertions.assertEquals("123...ctrue1....", sb.toString());
+        sb.setLength(0);
+        Assertions.assertTrue(LogValues.append(sb, 7, 5, 100));
+        Assertions.assertEquals("7", sb.toString());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.lorislab.java.lang.ReflectionUtil;
+
+/**
+ *
+ * @author andrej
+ */
+public class LoggerFormaterServiceTest {
+
+    @Test
+    public void stringBudgetTest() {
+        LoggerFormaterService service = new LoggerFormaterService();
+        StringBuilder sb = new StringBuilder(1000);
+        for (int i = 0; i < 1000; i++) {
+            sb.append('a');
+        }
+        Assertions.assertEquals("aaaaa...", service.getValue(sb, 5));
+        Assertions.assertEquals("aaa...,...", service.getValuesString(new Object[]{sb, "b"}, null, 3, 6));
+    }
+
+    @Test
+    public void parameterBudgetTest() {
+        AtomicInteger count = new AtomicInteger();
+        Model model = new Model();
+        for (int i = 0; i < 1000; i++) {
+            model.items.add(new Item(count));
+        }
+        LoggerFormaterService service = new LoggerFormaterService();
+        service.initParameters(Collections.singletonList(new ModelLoggerParameter()));
+
+        Assertions.assertEquals("Model[items=[item, item...", service.getValue(model, 23));
+        Assertions.assertEquals(2, count.get());
+    }
+
+    /**
+     * The test model.
+     */
+    static class Model {
+
+        private final List<Item> items = new ArrayList<>();
+    }
+
+    /**
+     * The test item which counts the rendering.
+     */
+    static class Item {
+
+        private final AtomicInteger count;
+
+        Item(AtomicInteger count) {
+            this.count = count;
+        }
+
+        @Override
+        public String toString() {
+            count.incrementAndGet();
+            return "item";
+        }
+    }
+
+    /**
+     * The test model logger parameter.
+     */
+    static class ModelLoggerParameter extends LoggerParameter {
+
+        @Override
+        public Class[] getClasses() {
+            return new Class[]{Model.class};
+        }
+
+        @Override
+        public Object getObject(Object parameter) {
+            return ReflectionUtil.toString(parameter);
+        }
+
+        @Override
+        public boolean appendTo(StringBuilder sb, Object parameter, int maxLength) {
+            ReflectionUtil.appendTo(sb, parameter, -1, maxLength);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.lorislab.jee.interceptor.RecordingLogger;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+/**
+ *
+ * @author andrej
+ */
+public class RequestLogBufferTest {
+
+    @Test
+    public void successSummaryTest() {
+        List<String> messages = new ArrayList<>();
+        Logger logger = RecordingLogger.create(messages);
+        RequestLogBuffer buffer = new RequestLogBuffer(4, 0, true);
+        buffer.start();
+        Assertions.assertTrue(buffer.offer(logger, Level.INFO, "start", null));
+        Assertions.assertTrue(buffer.offer(logger, Level.INFO, "finished", null));
+        Assertions.assertTrue(messages.isEmpty());
+        buffer.finish(1000, "1");
+        Assertions.assertEquals(Arrays.asList("info finished"), messages);
+        Assertions.assertFalse(buffer.offer(logger, Level.INFO, "after", null));
+    }
+
+    @Test
+    public void successDiscardTest() {
+        List<String> messages = new ArrayList<>();
+        Logger logger = RecordingLogger.create(messages);
+        RequestLogBuffer buffer = new RequestLogBuffer(4, 0, false);
+        buffer.start();
+        buffer.offer(logger, Level.INFO, "start", null);
+        buffer.offer(logger, Level.INFO, "finished", null);
+        buffer.finish(1000, "1");
+        Assertions.assertTrue(messages.isEmpty());
+    }
+
+    @Test
+    public void errorFlushTest() {
+        List<String> messages = new ArrayList<>();
+        Logger logger = RecordingLogger.create(messages);
+        RequestLogBuffer buffer = new RequestLogBuffer(4, 0, false);
+        buffer.start();
+        buffer.offer(logger, Level.INFO, "start", null);
+        buffer.offer(logger, Level.ERROR, "failed", new IllegalStateException());
+        buffer.offer(logger, Level.INFO, "finished", null);
+        buffer.finish(1000, "1");
+        Assertions.assertEquals(Arrays.asList("info start", "error failed", "info finished"), messages);
+
+        messages.clear();
+        buffer.start();
+        buffer.offer(logger, Level.INFO, "next", null);
+        buffer.finish(1000, "2");
+        Assertions.assertTrue(messages.isEmpty());
+    }
+
+    @Test
+    public void thresholdTest() {
+        List<String> messages = new ArrayList<>();
+        Logger logger = RecordingLogger.create(messages);
+        RequestLogBuffer buffer = new RequestLogBuffer(4, 500, false);
+        buffer.start();
+        buffer.offer(logger, Level.INFO, "start", null);
+        buffer.offer(logger, Level.INFO, "finished", null);
+        buffer.finish(500, "1");
+        Assertions.assertEquals(Arrays.asList("info start", "info finished"), messages);
+    }
+
+    @Test
+    public void overflowTest() {
+        List<String> messages = new ArrayList<>();
+        Logger logger = RecordingLogger.create(messages);
+        RequestLogBuffer buffer = new RequestLogBuffer(2, 0, false);
+        buffer.start();
+        buffer.offer(logger, Level.INFO, "1", null);
+        buffer.offer(logger, Level.INFO, "2", null);
+        buffer.offer(logger, Level.INFO, "3", null);
+        buffer.offer(logger, Level.ERROR, "4", null);
+        buffer.finish(1000, "1");
+        Assertions.assertEquals(3, messages.size());
+        Assertions.assertTrue(messages.get(0).startsWith("warn"));
+        Assertions.assertEquals(Arrays.asList("info 3", "error 4"), messages.subList(1, 3));
+    }
+}
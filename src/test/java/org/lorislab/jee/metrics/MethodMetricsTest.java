@@ -0,0 +1,39 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author andrej
+ */
+public class MethodMetricsTest {
+
+    @Test
+    public void recordUsageTest() {
+        MethodMetrics metrics = new MethodMetrics("Service", "find");
+        Assertions.assertEquals(0, metrics.getMeanCpuMillis(), 0.0001);
+        Assertions.assertEquals(0, metrics.getMeanAllocatedBytes());
+
+        metrics.recordUsage(2_000_000, 100);
+        metrics.recordUsage(4_000_000, -1);
+        metrics.recordUsage(-1, 300);
+        Assertions.assertEquals(3, metrics.getMeanCpuMillis(), 0.0001);
+        Assertions.assertEquals(200, metrics.getMeanAllocatedBytes());
+    }
+}
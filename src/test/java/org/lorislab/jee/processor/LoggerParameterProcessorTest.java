@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018 andrej.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.lorislab.jee.processor;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.lorislab.jee.logger.LoggerParameter;
+
+/**
+ *
+ * @author andrej
+ */
+public class LoggerParameterProcessorTest {
+
+    @Test
+    public void generateTest() throws Exception {
+        Path dir = Files.createTempDirectory("jel-processor");
+        Path src = Files.createDirectories(dir.resolve("src/test/model"));
+        Path out = Files.createDirectories(dir.resolve("out"));
+        Files.write(src.resolve("Model.java"), Arrays.asList(
+                "package test.model;",
+                "import org.lorislab.jee.annotation.LoggerFormat;",
+                "@LoggerFormat",
+                "public class Model {",
+                "    public String name = \"model\";",
+                "    @LoggerFormat.Field(mask = true)",
+                "    public String password = \"secret\";",
+                "    @LoggerFormat.Field(maxLength = 3)",
+                "    public String text = \"long text\";",
+                "    private int count = 5;",
+                "    public int getCount() { return count; }",
+                "    char type = 'A';",
+                "    boolean active = true;",
+                "}"), StandardCharsets.UTF_8);
+        Files.write(src.resolve("Order.java"), Arrays.asList(
+                "package test.model;",
+                "import javax.persistence.Entity;",
+                "import org.lorislab.jee.annotation.LoggerFormat;",
+                "@Entity",
+                "@LoggerFormat",
+                "public class Order {",
+                "    public long id = 42;",
+                "}"), StandardCharsets.UTF_8);
+        Files.write(src.resolve("ModelProxy.java"), Arrays.asList(
+                "package test.model;",
+                "public class ModelProxy extends Model {",
+                "}"), StandardCharsets.UTF_8);
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fm = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            Iterable<? extends JavaFileObject> units = fm.getJavaFileObjects(
+                    src.resolve("Model.java").toFile(), src.resolve("ModelProxy.java").toFile(), src.resolve("Order.java").toFile());
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fm, null,
+                    Arrays.asList("-d", out.toString(), "-s", out.toString()), null, units);
+            task.setProcessors(Collections.singletonList(new LoggerParameterProcessor()));
+            Assertions.assertTrue(task.call());
+        }
+        Assertions.assertTrue(new File(out.toFile(), "test/model/ModelLoggerParameter.java").exists());
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{out.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> model = loader.loadClass("test.model.Model");
+            Class<?> proxy = loader.loadClass("test.model.ModelProxy");
+            LoggerParameter parameter = (LoggerParameter) loader.loadClass("test.model.ModelLoggerParameter").getConstructor().newInstance();
+            Assertions.assertSame(model, parameter.getClasses()[0]);
+            Assertions.assertSame(model, parameter.getAssignableFrom());
+
+            Object value = model.getConstructor().newInstance();
+            Assertions.assertEquals("Model[name=model,password=***,text=lon...,count=5,type=A,active=true]", parameter.getObject(value));
+            StringBuilder sb = new StringBuilder();
+            parameter.appendTo(sb, value, 12);
+            Assertions.assertEquals("Model[name=m...", sb.toString());
+            Assertions.assertTrue(parameter.getAssignableFrom().isAssignableFrom(proxy));
+
+            LoggerParameter order = (LoggerParameter) loader.loadClass("test.model.OrderLoggerParameter").getConstructor().newInstance();
+            Assertions.assertNull(order.getAssignableFrom());
+            Assertions.assertEquals("Order[id=42]", order.getObject(loader.loadClass("test.model.Order").getConstructor().newInstance()));
+            Assertions.assertEquals("Model[name=model,password=***,text=lon...,count=5,type=A,active=true]", parameter.getObject(proxy.getConstructor().newInstance()));
+        }
+    }
+}